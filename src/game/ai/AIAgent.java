@@ -4,6 +4,7 @@ import java.util.Random;
 import org.joml.Vector2i;
 
 public interface AIAgent {
+    /** Current cell; may be a reused instance, so copy it to keep it. */
     Vector2i getCell();
 
     void requestMoveTo(Vector2i nextCell, float speedMul);
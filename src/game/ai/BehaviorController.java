@@ -29,7 +29,7 @@ public final class BehaviorController {
         sensorAccumulator += dt;
         float step = 1f / sensorHz;
         while (sensorAccumulator >= step) {
-            for (Sensor s : sensors) s.sample(step, agent, bb);
+            for (int i = 0; i < sensors.size(); i++) sensors.get(i).sample(step, agent, bb);
             sensorAccumulator -= step;
         }
         root.tick(dt, agent, bb);
@@ -1,14 +1,13 @@
 package game.ai;
 
-import java.util.List;
 import org.joml.Vector2i;
 
 public interface WorldAPI {
     boolean isWalkable(Vector2i cell);
     boolean hasLineOfSight(Vector2i from, Vector2i to);
-    List<Vector2i> neighbors4(Vector2i cell); // N/E/S/W
+    int neighbors4(Vector2i cell, Vector2i[] out); // in-bounds neighbours written to out[0..n), +x/-x/+y/-y
     float heuristicCost(Vector2i a, Vector2i b);
     float seconds();
-    Vector2i playerCell();
+    Vector2i playerCell();   // may be a reused instance; copy to keep
     Vector2i lastNoiseCell();
 }
@@ -11,6 +11,8 @@ public final class MoveAction implements Action {
     private final Mode mode;
     private final float speedMul;
     private final PathProvider provider;
+    private final Vector2i probe = new Vector2i();
+    private static final int[][] STEPS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };   // neighbors4 order
 
     public static Action fromJson(JSONObject p) {
         float spd = (float)p.optDouble("speed", 1.0);
@@ -60,14 +62,22 @@ public final class MoveAction implements Action {
         }
     }
 
+    // Walkable neighbour closest to the target, first in neighbors4 order on ties.
+    // Runs every tick while chasing, so it scans in place instead of sorting a list.
     private Status stepToward(AIAgent agent, Blackboard bb, Vector2i target) {
-        java.util.List<Vector2i> ns = agent.world().neighbors4(agent.getCell());
-        ns.sort(java.util.Comparator.comparingDouble(n -> agent.world().heuristicCost(n, target)));
-        for (Vector2i n : ns) if (agent.world().isWalkable(n)) {
-            agent.requestMoveTo(n, speedMul);
-            return Status.RUNNING;
+        Vector2i me = agent.getCell();
+        int cx = me.x, cy = me.y;
+        int best = -1;
+        float bestCost = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < STEPS.length; i++) {
+            probe.set(cx + STEPS[i][0], cy + STEPS[i][1]);
+            if (!agent.world().isWalkable(probe)) continue;
+            float cost = agent.world().heuristicCost(probe, target);
+            if (cost < bestCost) { bestCost = cost; best = i; }
         }
-        return Status.FAILURE;
+        if (best < 0) return Status.FAILURE;
+        agent.requestMoveTo(probe.set(cx + STEPS[best][0], cy + STEPS[best][1]), speedMul);
+        return Status.RUNNING;
     }
 
     private static final class PatrolOrRandom implements PathProvider {
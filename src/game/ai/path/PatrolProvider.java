@@ -7,12 +7,15 @@ import game.ai.*;
 public final class PatrolProvider implements PathProvider {
     private final List<Vector2i> waypoints;
     private int idx = 0;
+    // Reused every call, like RandomAdjacentProvider's.
+    private final Vector2i step = new Vector2i();
+    private final Optional<List<Vector2i>> path = Optional.of(List.of(step));
     public PatrolProvider(List<Vector2i> waypoints) { this.waypoints = waypoints; }
 
     @Override public Optional<List<Vector2i>> nextPath(AIAgent agent, Blackboard bb) {
         if (waypoints.isEmpty()) return Optional.empty();
-        Vector2i target = waypoints.get(idx);
+        step.set(waypoints.get(idx));
         idx = (idx + 1) % waypoints.size();
-        return Optional.of(java.util.List.of(new Vector2i(target)));
+        return path;
     }
 }
@@ -5,11 +5,22 @@ import org.joml.Vector2i;
 import game.ai.*;
 
 public final class RandomAdjacentProvider implements PathProvider {
+    // Reused every call: MoveAction only reads the path until it asks for the next one.
+    private final Vector2i[] neighbors = { new Vector2i(), new Vector2i(), new Vector2i(), new Vector2i() };
+    private final Vector2i step = new Vector2i();
+    private final Optional<List<Vector2i>> path = Optional.of(List.of(step));
+
     @Override public Optional<List<Vector2i>> nextPath(AIAgent agent, Blackboard bb) {
-        List<Vector2i> ns = agent.world().neighbors4(agent.getCell());
-        Collections.shuffle(ns, agent.rng());
-        for (Vector2i n : ns) if (agent.world().isWalkable(n)) {
-            return Optional.of(java.util.List.of(new Vector2i(n)));
+        int n = agent.world().neighbors4(agent.getCell(), neighbors);
+        // Same draws as Collections.shuffle on the list, so seeded enemies wander as before.
+        Random rng = agent.rng();
+        for (int i = n; i > 1; i--) {
+            int j = rng.nextInt(i);
+            Vector2i t = neighbors[i - 1]; neighbors[i - 1] = neighbors[j]; neighbors[j] = t;
+        }
+        for (int i = 0; i < n; i++) if (agent.world().isWalkable(neighbors[i])) {
+            step.set(neighbors[i]);
+            return path;
         }
         return Optional.empty();
     }
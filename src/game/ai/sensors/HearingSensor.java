@@ -3,20 +3,26 @@ package game.ai.sensors;
 import game.ai.*;
 import org.joml.Vector2i;
 
+import java.util.Optional;
+
 public final class HearingSensor implements Sensor {
     private final float decaySeconds;
+    // The blackboard's last-heard cell, like VisionSensor's.
+    private final Vector2i heard = new Vector2i();
+    private final Optional<Vector2i> heardCell = Optional.of(heard);
 
     public HearingSensor(float decaySeconds) { this.decaySeconds = decaySeconds; }
 
     @Override public void sample(float dt, AIAgent agent, Blackboard bb) {
         Vector2i noise = agent.world().lastNoiseCell();
         if (noise != null) {
-            bb.lastHeardNoiseCell = java.util.Optional.of(new Vector2i(noise));
+            heard.set(noise);
+            bb.lastHeardNoiseCell = heardCell;
             bb.timeSinceHeardNoise = 0f;
         } else {
             bb.timeSinceHeardNoise += dt;
             if (bb.timeSinceHeardNoise > decaySeconds) {
-                bb.lastHeardNoiseCell = java.util.Optional.empty();
+                bb.lastHeardNoiseCell = Optional.empty();
             }
         }
     }
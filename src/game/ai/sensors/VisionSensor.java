@@ -3,9 +3,14 @@ package game.ai.sensors;
 import game.ai.*;
 import org.joml.Vector2i;
 
+import java.util.Optional;
+
 public final class VisionSensor implements Sensor {
     private final float fovDeg;
     private final float maxDist;
+    // The blackboard's last-seen cell; updated in place, so no sighting allocates.
+    private final Vector2i seen = new Vector2i();
+    private final Optional<Vector2i> seenCell = Optional.of(seen);
 
     public VisionSensor(float fovDeg, float maxTiles) {
         this.fovDeg = fovDeg; this.maxDist = maxTiles;
@@ -17,7 +22,8 @@ public final class VisionSensor implements Sensor {
         float dist = agent.world().heuristicCost(me, player);
         boolean canSee = dist <= maxDist && agent.world().hasLineOfSight(me, player);
         if (canSee) {
-            bb.lastSeenPlayerCell = java.util.Optional.of(new Vector2i(player));
+            seen.set(player);
+            bb.lastSeenPlayerCell = seenCell;
             bb.timeSinceSeenPlayer = 0f;
         } else {
             bb.timeSinceSeenPlayer += dt;
@@ -66,9 +66,14 @@ public final class AudioSystem {
         alListener3f(AL_POSITION, x, y, z);
         float rad = (float)Math.toRadians(yawDegrees);
         float fx = (float)Math.sin(rad), fz = (float)-Math.cos(rad);
-        alListenerfv(AL_ORIENTATION, new float[]{ fx,0,fz,  0,1,0 });
+        // at (fx, 0, fz), up (0, 1, 0); set every frame, so the array is reused.
+        LISTENER_ORIENTATION[0] = fx;
+        LISTENER_ORIENTATION[2] = fz;
+        alListenerfv(AL_ORIENTATION, LISTENER_ORIENTATION);
     }
 
+    private static final float[] LISTENER_ORIENTATION = { 0, 0, -1,  0, 1, 0 };
+
     public static void playSfx(String id) { playSfx(id, 0,0,0, false); }
     public static void playSfxAt(String id, float x, float y, float z) { playSfx(id,x,y,z,true); }
 
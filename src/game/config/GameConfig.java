@@ -4,4 +4,18 @@ public class GameConfig {
     public static final float TILE_SIZE = 3.0f;
     public static final float ROOM_HEIGHT = 3.0f;
     public static final float ROOM_HALF_SIZE = TILE_SIZE / 2.0f;
+    public static final int CHUNK_SIZE = 8;  // tiles per world chunk edge (also the PVS culling granularity)
+    public static final int TILE_TEXTURE_SIZE = 32;   // texture-array layer edge (pixels) for tiles
+    public static final int SPRITE_TEXTURE_SIZE = 32; // ... and for enemy sprite frames
+    public static final long TEXTURE_UPLOAD_BUDGET_NANOS = 2_000_000L; // GL upload time per frame
+    public static final int TEXTURE_ARRAY_LAYERS = 64;                   // initial layers per texture array (grows)
+    public static final long GPU_CACHE_BUDGET_BYTES = 64L * 1024 * 1024; // VRAM kept for unreferenced resources
+    public static final float SIM_STEP_SECONDS = 1f / 120f;    // fixed simulation step (120 Hz)
+    public static final int MAX_SIM_STEPS_PER_FRAME = 15;      // longer hitches are dropped, not replayed
+    public static final double IDLE_WAIT_SECONDS = 0.5;        // longest sleep for an idle state between ticks
+    public static final double BACKGROUND_TICK_SECONDS = 0.1;  // tick interval while unfocused or iconified
+    public static final boolean GL_STATE_DEBUG = Boolean.getBoolean("gl.state.debug"); // count skipped GL calls
+    public static final boolean ALLOC_PROBE = Boolean.getBoolean("alloc.probe");        // report bytes allocated per frame
+    public static final boolean DEPTH_PREPASS = Boolean.getBoolean("render.depthPrepass");   // depth-only world pass first
+    public static final boolean SAMPLE_QUERIES = Boolean.getBoolean("render.sampleQueries"); // report world fragments per frame
 }
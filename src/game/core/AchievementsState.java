@@ -34,5 +34,8 @@ public class AchievementsState implements IGameState {
 
     @Override public void render() { overlay.render(); }
 
+    // Icon uploads still in flight keep the loop awake on their own.
+    @Override public boolean isIdle() { return true; }
+
     @Override public void exit()   { overlay.cleanup(); }
 }
@@ -0,0 +1,41 @@
+package game.core;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Debug check that the frame loop doesn't allocate: measures the bytes the game
+ * thread allocates per frame with {@code ThreadMXBean.getCurrentThreadAllocatedBytes}.
+ * Enabled with {@code -Dalloc.probe=true}; a steady-state frame should report 0.
+ * Frames that load a level, re-bake text or post gameplay events are expected to
+ * show up in {@code max}.
+ */
+final class FrameAllocationProbe {
+    private final com.sun.management.ThreadMXBean threads;
+    private long frameStart;
+    private long frames, allocatingFrames, totalBytes, maxBytes;
+
+    FrameAllocationProbe() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    void beginFrame() {
+        frameStart = threads.getCurrentThreadAllocatedBytes();
+    }
+
+    void endFrame() {
+        long bytes = threads.getCurrentThreadAllocatedBytes() - frameStart;
+        frames++;
+        totalBytes += bytes;
+        if (bytes > 0) allocatingFrames++;
+        if (bytes > maxBytes) maxBytes = bytes;
+    }
+
+    /** Summary since the last report, then resets; the report itself allocates outside any frame. */
+    String report() {
+        String s = frames + " frames, " + allocatingFrames + " allocated, "
+                + (frames > 0 ? totalBytes / frames : 0) + " B/frame avg, " + maxBytes + " B max";
+        frames = allocatingFrames = totalBytes = maxBytes = 0;
+        return s;
+    }
+}
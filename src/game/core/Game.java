@@ -1,7 +1,11 @@
 package game.core;
 
 import game.config.GameConfig;
+import game.graphics.GLState;
+import game.graphics.GpuResourceCache;
+import game.graphics.RenderQueue;
 import game.graphics.Renderer;
+import game.graphics.TextureStreamer;
 import game.input.InputEdge;
 import game.input.InputGate;
 import game.input.KeyboardInput;
@@ -20,6 +24,7 @@ import game.logic.cond.ReachCell;
 import org.json.JSONObject;
 
 import game.logic.TimerService;
+import game.ui.SpriteBatch;
 import game.ui.VersionOverlay;
 
 
@@ -32,6 +37,7 @@ public class Game {
     MapData mapData;
     LevelManager levelManager;
     private IGameState currentState;
+    private boolean redraw = true;   // an idle state still needs one frame drawn
 
     public final TimerService timers = new TimerService();
 
@@ -46,6 +52,7 @@ public class Game {
         if (currentState != null) currentState.exit();
         currentState = newState;
         currentState.enter();
+        redraw = true;
 
         long win = window.getWindowHandle();
         InputEdge.onStateEnter(win);  // edge detector gate
@@ -88,15 +95,73 @@ public class Game {
     }
     private void loop() {
         long lastTime = System.nanoTime();
+        long lastDebugReport = lastTime;
+        double accumulator = 0;   // real time not yet simulated, seconds
+        final double maxBacklog = GameConfig.MAX_SIM_STEPS_PER_FRAME * (double) GameConfig.SIM_STEP_SECONDS;
+        FrameAllocationProbe allocations = GameConfig.ALLOC_PROBE ? new FrameAllocationProbe() : null;
         while (running && !window.shouldClose()) {
+            // Idle screens and background windows sleep in GLFW instead of spinning at vsync.
+            // Streaming uploads keep the loop awake until they land.
+            boolean idle = currentState.isIdle() && TextureStreamer.get().getPendingCount() == 0;
+            boolean background = window.isIconified() || !window.isFocused();
+            if (background) {
+                window.waitEvents(GameConfig.BACKGROUND_TICK_SECONDS);
+            } else if (idle && !redraw) {
+                window.waitEvents(GameConfig.IDLE_WAIT_SECONDS);
+            }
+            if (window.takeRedrawRequest()) redraw = true;
+
             long now = System.nanoTime();
             float deltaTime = (now - lastTime) / 1_000_000_000f;
             lastTime = now;
-
-            currentState.update(deltaTime);
+            accumulator = Math.min(accumulator + deltaTime, maxBacklog);   // level time: see Simulation.run
+
+            if (allocations != null) allocations.beginFrame();
+            IGameState framed = currentState;
+            currentState.frame();
+            if (currentState != framed) {   // like a change during a step, below
+                accumulator = 0;
+                lastTime = System.nanoTime();
+            }
+            // Fixed-size steps, however long the frame took. A level simulates on its own
+            // thread (see Simulation) and exchanges input and snapshots in frame() instead.
+            int steps = 0;
+            while (accumulator >= GameConfig.SIM_STEP_SECONDS) {
+                IGameState stepped = currentState;
+                currentState.update(GameConfig.SIM_STEP_SECONDS);
+                accumulator -= GameConfig.SIM_STEP_SECONDS;
+                steps++;
+                if (currentState != stepped) {   // a new state starts from rest, not from its load time
+                    accumulator = 0;
+                    lastTime = System.nanoTime();
+                    break;
+                }
+            }
             game.audio.AudioSystem.update(deltaTime);
-            render();
-            window.update();
+            TextureStreamer.get().drainUploads(GameConfig.TEXTURE_UPLOAD_BUDGET_NANOS);
+            // An idle frame with nothing new keeps the last image; events came from waitEvents.
+            // A redraw stays pending until a step has actually seen the input behind it.
+            if (!window.isIconified() && (redraw || !idle)) {
+                render();
+                window.update();
+                redraw = steps == 0;
+            }
+            if (allocations != null) allocations.endFrame();
+
+            if (now - lastDebugReport >= 5_000_000_000L) {
+                if (GameConfig.GL_STATE_DEBUG) {
+                    System.out.println("GLState: " + GLState.summary());
+                    GLState.resetCounters();
+                }
+                if (allocations != null) System.out.println("Allocations: " + allocations.report());
+                if (GameConfig.SAMPLE_QUERIES) {
+                    System.out.println("World samples/frame: " + RenderQueue.get().takeAverageSamples()
+                            + (GameConfig.DEPTH_PREPASS
+                                    ? " shaded, " + RenderQueue.get().takeAveragePrepassSamples() + " in the depth pre-pass"
+                                    : ""));
+                }
+                lastDebugReport = now;
+            }
         }
     }
     void reloadLevel() {
@@ -122,12 +187,17 @@ public class Game {
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
         currentState.render();
         if (versionOverlay != null) versionOverlay.render();
+        // World, sprites and overlays were queued above; draw them sorted by state.
+        RenderQueue.get().flush();
 
     }
     public void cleanup() {
         game.audio.AudioSystem.shutdown();
+        TextureStreamer.get().shutdown();
         if (renderer != null) renderer.cleanup();
         if (versionOverlay != null) versionOverlay.cleanup();
+        SpriteBatch.get().cleanup();
+        GpuResourceCache.get().clear();
         if (window != null) window.destroy();
     }
 }
\ No newline at end of file
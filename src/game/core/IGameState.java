@@ -4,12 +4,21 @@ public interface IGameState {
     // Called once when this state becomes active.
     void enter();
 
-    // Called every frame; dt is seconds since last frame.
+    // Called at the fixed simulation step, as many times as the frame's time covers;
+    // dt is that step in seconds.
     void update(float dt);
 
+    // Called once per frame before the fixed steps, for work that only needs the newest
+    // state, like sampling input or taking what another thread has published.
+    default void frame() {}
+
     // Called every frame to draw this state’s UI or scene.
     void render();
 
     // Called once when this state is about to be replaced.
     void exit();
+
+    // True while nothing on screen moves by itself. The loop then sleeps until input
+    // arrives and only redraws after it, instead of running at vsync rate.
+    default boolean isIdle() { return false; }
 }
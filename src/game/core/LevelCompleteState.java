@@ -52,5 +52,6 @@ public class LevelCompleteState implements IGameState {
     }
 
     @Override public void render() { overlay.render(); }
+    @Override public boolean isIdle() { return true; }
     @Override public void exit()   { overlay.cleanup(); }
 }
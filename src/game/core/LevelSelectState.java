@@ -47,6 +47,9 @@ public class LevelSelectState implements IGameState {
         menu.render();
     }
 
+    @Override
+    public boolean isIdle() { return true; }
+
     @Override
     public void exit() {
         menu.cleanup();
@@ -56,6 +56,10 @@ public class MainMenuState implements IGameState {
         menu.render();
     }
 
+    // Static until a key moves the selection.
+    @Override
+    public boolean isIdle() { return true; }
+
     @Override
     public void exit() {
         AudioSystem.stopMusic();
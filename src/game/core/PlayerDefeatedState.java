@@ -1,10 +1,8 @@
 package game.core;
 
-import game.ui.TextTexture;
-import game.util.FontLoader;
-
-import java.awt.Color;
-import java.awt.Font;
+import game.graphics.GLState;
+import game.ui.OverlayRenderer;
+import game.ui.TextLabel;
 
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.*;
@@ -12,7 +10,8 @@ import static org.lwjgl.opengl.GL11.*;
 public class PlayerDefeatedState implements IGameState {
 
     private final Game game;
-    private TextTexture youDiedTexture;
+    private OverlayRenderer overlay;
+    private TextLabel youDiedTexture;
     private float elapsedSeconds = 0f;
     private boolean enterPressed = false;
 
@@ -27,13 +26,12 @@ public class PlayerDefeatedState implements IGameState {
 
     @Override
     public void enter() {
-        Font font = FontLoader.loadFont("/fonts/RubikMonoOne.ttf", 72f);
-
-        youDiedTexture = new TextTexture(
-                "YOU DIEDED",
-                font,
+        overlay = new OverlayRenderer(game.window);
+        youDiedTexture = new TextLabel(
+                "/data/fonts/RubikMonoOne.ttf", 72f,
                 16, 16,
-                new Color(190, 0, 0)
+                0xBE0000FF,
+                "YOU DIEDED"
         );
 
         elapsedSeconds = 0f;
@@ -59,7 +57,7 @@ public class PlayerDefeatedState implements IGameState {
 
     @Override
     public void render() {
-        glDisable(GL_DEPTH_TEST);
+        GLState.disable(GL_DEPTH_TEST);
         glClearColor(0f, 0f, 0f, 1f);
         glClear(GL_COLOR_BUFFER_BIT);
 
@@ -83,30 +81,13 @@ public class PlayerDefeatedState implements IGameState {
         float xPix = (winW - texW) * 0.5f;
         float yPix = (winH - texH) * 0.5f;
 
-        glMatrixMode(GL_PROJECTION);
-        glLoadIdentity();
-        glMatrixMode(GL_MODELVIEW);
-        glLoadIdentity();
-
-        float left   =  2.0f * xPix / winW - 1.0f;
-        float right  =  2.0f * (xPix + texW) / winW - 1.0f;
-        float top    =  1.0f - 2.0f * yPix / winH;
-        float bottom =  1.0f - 2.0f * (yPix + texH) / winH;
-
-        glEnable(GL_TEXTURE_2D);
-        glBindTexture(GL_TEXTURE_2D, youDiedTexture.getId());
-
-        glBegin(GL_QUADS);
-        glTexCoord2f(0f, 0f); glVertex2f(left,  top);
-        glTexCoord2f(1f, 0f); glVertex2f(right, top);
-        glTexCoord2f(1f, 1f); glVertex2f(right, bottom);
-        glTexCoord2f(0f, 1f); glVertex2f(left,  bottom);
-        glEnd();
-
-        glBindTexture(GL_TEXTURE_2D, 0);
-        glDisable(GL_TEXTURE_2D);
+        overlay.render(youDiedTexture, xPix, yPix, scale);
     }
 
+    // Still once the text has finished growing.
+    @Override
+    public boolean isIdle() { return elapsedSeconds >= GROW_DURATION; }
+
     @Override
     public void exit() {
         if (youDiedTexture != null) {
@@ -0,0 +1,291 @@
+package game.core;
+
+import game.config.GameConfig;
+import game.input.KeyboardInput;
+import game.logic.Condition;
+import game.logic.ConditionFactory;
+import game.logic.EventBus;
+import game.logic.EventRing;
+import game.logic.GameEvent;
+import game.logic.GameEventType;
+import game.logic.ObjectiveManager;
+import game.logic.Registries;
+import game.logic.RuntimeContext;
+import game.logic.TimerService;
+import game.map.MapData;
+import game.map.Tile;
+import game.world.Player;
+import game.world.SnapshotBuffer;
+import game.world.WorldSnapshot;
+import game.world.enemy.EnemyManager;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One level's simulation (player movement, enemies, objectives, the level timer)
+ * running on its own thread at a fixed step, so AI work and the GL thread's frame
+ * overlap instead of adding up. The GL thread never touches the simulated objects
+ * while it runs: it renders from {@link #latest()} snapshots, hears about events
+ * through {@link #pollEvent()} and {@link #pollPopup()}, and feeds input in through
+ * {@link #setKeys}. Doors are the one shared piece of map state: this thread owns
+ * their walkability, the GL thread applies their open state from the snapshots.
+ */
+final class Simulation implements Runnable {
+    enum Outcome { NONE, DEFEATED, LEVEL_COMPLETE }
+
+    private final MapData map;
+    private final Player player;
+    private final TimerService timers;
+    private final KeyboardInput keyboard = new KeyboardInput();
+    private final EventBus events = new EventBus();
+    private final ObjectiveManager objectives = new ObjectiveManager();
+    private final EnemyManager enemies;
+
+    // Every openable tile of the map, as row * width + col, and the simulation's view of it.
+    private final int[] doorCells;
+    private final boolean[] doorsOpen;
+
+    // Posted again each time the player steps into the cell.
+    private final GameEvent[] enterTile;
+
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+    private final EventRing outEvents = new EventRing(1024);   // many seconds of steps between frames
+    private final ConcurrentLinkedQueue<String> outPopups = new ConcurrentLinkedQueue<>();
+
+    private volatile int keys;
+    private volatile Outcome outcome = Outcome.NONE;
+    private volatile Throwable failure;
+    private volatile boolean running;
+    private volatile boolean background;
+    private Thread thread;
+
+    private boolean interactPressed;
+    private int lastTx = -1, lastTy = -1;
+
+    /** Builds the level's world on the calling thread; nothing runs until {@link #start()}. */
+    Simulation(MapData map, Player player, TimerService timers) {
+        this.map = map;
+        this.player = player;
+        this.timers = timers;
+
+        // Forwarded to the GL thread, which plays the sounds; subscribed first as before.
+        events.subscribe(outEvents);
+        enemies = new EnemyManager(map, player, events);
+
+        enterTile = GameEvent.perCell(GameEventType.ENTER_TILE, map.getWidth(), map.getHeight());
+
+        int count = 0;
+        for (int r = 0; r < map.getHeight(); r++)
+            for (int c = 0; c < map.getWidth(); c++)
+                if (map.getTile(r, c).isOpenable()) count++;
+        doorCells = new int[count];
+        doorsOpen = new boolean[count];
+        int d = 0;
+        for (int r = 0; r < map.getHeight(); r++) {
+            for (int c = 0; c < map.getWidth(); c++) {
+                Tile t = map.getTile(r, c);
+                if (!t.isOpenable()) continue;
+                doorCells[d] = r * map.getWidth() + c;
+                doorsOpen[d++] = t.isOpen();
+            }
+        }
+
+        for (JSONObject spec : map.getObjectiveSpecs()) {
+            String id = spec.optString("id", "objective");
+            boolean mandatory = spec.optBoolean("mandatory", true);
+            String ui = spec.optString("ui", id);
+
+            JSONObject when = spec.getJSONObject("when");
+            String type = when.getString("type");
+            ConditionFactory f = Registries.CONDITIONS.get(type);
+            if (f == null) {
+                System.err.println("Unknown objective type: " + type + " (skipping)");
+                continue;
+            }
+            Condition cond = f.create(when);
+            objectives.add(new game.logic.Objective(id, mandatory, cond, ui));
+        }
+        objectives.attach(ctx());
+        events.subscribe(objectives);
+
+        events.post(GameEvent.simple(GameEventType.LEVEL_START));
+        publish(System.nanoTime());
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops and joins the thread; afterwards the world is safe to touch from the caller. */
+    void stop() {
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        final long stepNanos = (long) (GameConfig.SIM_STEP_SECONDS * 1e9);
+        final long backgroundNanos = (long) (GameConfig.BACKGROUND_TICK_SECONDS * 1e9);
+        long next = System.nanoTime() + stepNanos;
+        long lastPass = System.nanoTime();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                // In the background, wake at the loop's background tick and catch up in capped steps.
+                long wake = background ? Math.max(next, lastPass + backgroundNanos) : next;
+                if (now < wake) {
+                    LockSupport.parkNanos(wake - now);
+                    continue;
+                }
+                lastPass = now;
+                for (int steps = 0; now >= next && steps < GameConfig.MAX_SIM_STEPS_PER_FRAME
+                        && outcome == Outcome.NONE; steps++) {
+                    step(GameConfig.SIM_STEP_SECONDS);
+                    next += stepNanos;
+                }
+                if (now >= next) {   // too far behind, or finished: drop the backlog
+                    // Movement and AI skip it, but the level timer is scored wall-clock time.
+                    if (outcome == Outcome.NONE) timers.tick((now - next + stepNanos) / 1e9);
+                    next = now + stepNanos;
+                }
+                publish(System.nanoTime());
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+    }
+
+    /** One step and publish on the calling thread, as {@link #run()} does; only while not started. */
+    void stepOnce() {
+        if (outcome == Outcome.NONE) step(GameConfig.SIM_STEP_SECONDS);
+        publish(System.nanoTime());
+    }
+
+    private void step(float dt) {
+        int keys = this.keys;
+        player.storePrevious();
+        if (enemies.isPlayerDefeated()) {
+            outcome = Outcome.DEFEATED;
+            return;
+        }
+
+        timers.tick(dt);
+        keyboard.processInput(player, dt, map, keys);
+
+        // Post ENTER_TILE when player changes grid cell
+        int tx = (int)(player.getX() / GameConfig.TILE_SIZE);
+        int ty = (int)(player.getZ() / GameConfig.TILE_SIZE);
+        if (tx != lastTx || ty != lastTy) {
+            lastTx = tx; lastTy = ty;
+            boolean onMap = tx >= 0 && tx < map.getWidth() && ty >= 0 && ty < map.getHeight();
+            events.post(onMap ? enterTile[ty * map.getWidth() + tx] : new GameEvent(GameEventType.ENTER_TILE, tx, ty));
+        }
+
+        outPopups.addAll(objectives.drainCompletedPopups());
+
+        if ((keys & KeyboardInput.INTERACT) != 0) {
+            if (!interactPressed) {
+                interactPressed = true;
+                toggleAdjacentDoor(tx, ty);
+            }
+        } else {
+            interactPressed = false;
+        }
+
+        // Check if player is standing on an exit tile
+        if (ty >= 0 && ty < map.getHeight() && tx >= 0 && tx < map.getWidth()
+                && map.getTile(ty, tx).isEndsLevel() && objectives.allMandatoryComplete()) {
+            outcome = Outcome.LEVEL_COMPLETE;
+            return;
+        }
+
+        enemies.update(dt, map, player);
+    }
+
+    private void toggleAdjacentDoor(int col, int row) {
+        int[][] offs = {{-1,0},{1,0},{0,-1},{0,1}};  // NSEW
+        for (int[] off : offs) {
+            int r = row + off[0], c = col + off[1];
+            if (r < 0 || r >= map.getHeight() || c < 0 || c >= map.getWidth()) continue;
+            Tile t = map.getTile(r, c);
+            if (!t.isOpenable()) continue;
+            int door = doorIndex(r * map.getWidth() + c);
+            doorsOpen[door] = !doorsOpen[door];
+            t.setWalkable(doorsOpen[door]);
+            events.post(new GameEvent(GameEventType.TILE_CHANGED, c, r));
+            break;
+        }
+    }
+
+    private int doorIndex(int cell) {
+        int i = Arrays.binarySearch(doorCells, cell);   // filled in cell order
+        if (i < 0) throw new IllegalStateException("Not a door cell: " + cell);
+        return i;
+    }
+
+    private void publish(long stepNanos) {
+        WorldSnapshot s = snapshots.back();
+        s.capture(player, enemies.getEnemies(), doorsOpen, timers.levelSeconds(), stepNanos);
+        snapshots.publish();
+    }
+
+    // --- GL thread ---
+
+    void setKeys(int keys) { this.keys = keys; }
+
+    /** While iconified or unfocused the level only ticks every {@link GameConfig#BACKGROUND_TICK_SECONDS}. */
+    void setBackground(boolean background) {
+        if (this.background == background) return;
+        this.background = background;
+        if (!background && thread != null) LockSupport.unpark(thread);   // back to full rate now
+    }
+
+    /** Newest state of the world; rethrows anything the simulation thread died of. */
+    WorldSnapshot latest() {
+        Throwable t = failure;
+        if (t != null) throw new RuntimeException("Simulation failed: " + t.getMessage(), t);
+        return snapshots.latest();
+    }
+
+    /** Read before draining, so every event leading up to the outcome is already queued. */
+    Outcome getOutcome() { return outcome; }
+
+    GameEvent pollEvent() { return outEvents.poll(); }
+    String pollPopup()    { return outPopups.poll(); }
+
+    int getDoorCell(int door) { return doorCells[door]; }
+
+    /** Only once stopped. */
+    EventBus getEvents() { return events; }
+
+    private RuntimeContext ctx() {
+        return new RuntimeContext() {
+            @Override
+            public Tile tileAt(int x, int y) {
+                if (x < 0 || y < 0 || y >= map.getHeight() || x >= map.getWidth()) return null;
+                return map.getTile(y, x); // note: MapData.getTile(row,col) expects (y,x)
+            }
+            @Override
+            public float elapsedSeconds() {
+                return (float) timers.levelSeconds();
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package game.core;
 
+import org.lwjgl.glfw.Callbacks;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL;
 
@@ -11,6 +12,11 @@ public class Window {
     private final long window;
     private final int width;
     private final int height;
+    private final int framebufferWidth, framebufferHeight;   // pixels; differs from the above on HiDPI
+
+    // Set by GLFW callbacks while events are processed.
+    private boolean focused = true, iconified = false;
+    private boolean redrawRequested = true;
 
     public Window(int width, int height, String title) {
         this.width  = width;
@@ -24,15 +30,41 @@ public class Window {
         }
         glfwMakeContextCurrent(window);
         GL.createCapabilities();
+        int[] fbW = new int[1], fbH = new int[1];
+        glfwGetFramebufferSize(window, fbW, fbH);
+        framebufferWidth  = fbW[0];
+        framebufferHeight = fbH[0];
         glfwSwapInterval(1);
+
+        // Anything that could change what an idle screen shows asks for a redraw.
+        glfwSetKeyCallback(window, (w, key, scancode, action, mods) -> redrawRequested = true);
+        glfwSetMouseButtonCallback(window, (w, button, action, mods) -> redrawRequested = true);
+        glfwSetWindowRefreshCallback(window, w -> redrawRequested = true);
+        glfwSetWindowFocusCallback(window, (w, f) -> { focused = f; redrawRequested = true; });
+        glfwSetWindowIconifyCallback(window, (w, i) -> { iconified = i; redrawRequested = true; });
         glfwShowWindow(window);
     }
 
     public int getWidth()  { return width;  }
     public int getHeight() { return height; }
+    public int getFramebufferWidth()  { return framebufferWidth;  }
+    public int getFramebufferHeight() { return framebufferHeight; }
 
     public boolean shouldClose()   { return glfwWindowShouldClose(window); }
     public void    update()        { glfwSwapBuffers(window); glfwPollEvents(); }
-    public void    destroy()       { glfwDestroyWindow(window); glfwTerminate(); }
+    public void    destroy()       { Callbacks.glfwFreeCallbacks(window); glfwDestroyWindow(window); glfwTerminate(); }
+
+    /** Sleeps until an event arrives or {@code timeoutSeconds} pass, then processes events. */
+    public void    waitEvents(double timeoutSeconds) { glfwWaitEventsTimeout(timeoutSeconds); }
+
+    /** True once after input, focus changes or an expose since the last call. */
+    public boolean takeRedrawRequest() {
+        boolean r = redrawRequested;
+        redrawRequested = false;
+        return r;
+    }
+
+    public boolean isFocused()     { return focused;   }
+    public boolean isIconified()   { return iconified; }
     public long    getWindowHandle(){ return window; }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package game.graphics;
+
+import org.joml.Matrix4f;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+
+/**
+ * Per-frame camera data in a std140 uniform buffer at a fixed binding point.
+ * World shaders declare {@link #GLSL_BLOCK}; {@link ShaderProgram} wires the
+ * block to {@link #BINDING} at link time, so nothing is uploaded per program.
+ */
+public final class CameraUniforms {
+    public static final int BINDING = 0;
+    public static final String BLOCK_NAME = "Camera";
+
+    // std140: two mat4 (64 bytes each) then a vec4, no padding needed.
+    public static final String GLSL_BLOCK =
+            "layout(std140) uniform Camera {\n" +
+            "    mat4 projection;\n" +
+            "    mat4 view;\n" +
+            "    vec4 cameraPosYaw;\n" +  // xyz = eye position, w = yaw in radians
+            "};\n";
+    private static final int FLOATS = 16 + 16 + 4;
+
+    private final int uboId;
+    private final FloatBuffer data = BufferUtils.createFloatBuffer(FLOATS);
+
+    public CameraUniforms() {
+        uboId = glGenBuffers();
+        glBindBuffer(GL_UNIFORM_BUFFER, uboId);
+        glBufferData(GL_UNIFORM_BUFFER, (long) FLOATS * Float.BYTES, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+    }
+
+    /** Uploads this frame's camera and binds the buffer to {@link #BINDING}. */
+    public void update(Matrix4f projection, Matrix4f view, float x, float y, float z, float yawRadians) {
+        projection.get(0, data);
+        view.get(16, data);
+        data.put(32, x).put(33, y).put(34, z).put(35, yawRadians);
+
+        glBindBuffer(GL_UNIFORM_BUFFER, uboId);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, data);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        glBindBufferBase(GL_UNIFORM_BUFFER, BINDING, uboId);
+    }
+
+    public void cleanup() {
+        glDeleteBuffers(uboId);
+    }
+}
@@ -1,93 +1,248 @@
 package game.graphics;
 
 import game.config.GameConfig;
-import game.world.Player;
-import game.world.enemy.Enemy;
-import game.world.enemy.EnemyManager;
-import org.joml.Matrix4f;
+import game.world.WorldSnapshot;
+import org.joml.FrustumIntersection;
+import org.lwjgl.BufferUtils;
 
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static java.lang.Math.*;
 import static org.lwjgl.opengl.GL11.*;
-
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * Draws every visible enemy as one instanced batch of camera-facing quads.
+ * All sprite frames share a {@link TextureArray}; each instance carries its
+ * position, size and the layer of the frame picked from its facing. Instances
+ * are sorted back to front within the batch so blending stays correct.
+ */
 public final class EnemySpriteRenderer {
 
-    private static final class QuadSet {
-        final TexturedQuadRenderer front, sideLeft, sideRight, back;
-        final float heightMeters;
-        QuadSet(TexturedQuadRenderer f, TexturedQuadRenderer sl, TexturedQuadRenderer sr, TexturedQuadRenderer b, float h) {
-            front = f; sideLeft = sl; sideRight = sr; back = b; heightMeters = h;
-        }
-        void cleanup() { front.cleanup(); sideLeft.cleanup(); sideRight.cleanup(); back.cleanup(); }
-    }
-
-    private final SpriteDefsLoader defs;
-    private final Map<String, QuadSet> cache = new HashMap<>();
+    // Frame order inside a type's layer block.
+    private static final int FRONT = 0, SIDE_LEFT = 1, SIDE_RIGHT = 2, BACK = 3;
+    private static final int FLOATS_PER_SPRITE = 5;   // x, z, width, height, layer
 
-    public EnemySpriteRenderer(SpriteDefsLoader defs) {
-        this.defs = defs;
+    private static final class SpriteType {
+        final int[] layers = new int[4];
+        final float widthMeters, heightMeters;
+        SpriteType(float w, float h) { widthMeters = w; heightMeters = h; }
     }
 
-    public void render(EnemyManager manager, Player cameraPlayer, Matrix4f projection, Matrix4f view) {
-        if (manager == null) return;
-
-        boolean wasBlend = glIsEnabled(GL_BLEND);
-        boolean wasCull  = glIsEnabled(GL_CULL_FACE);
+    private static final String FRAMES_KEY = "texture-array:sprites";
+    private static final String CORNERS_KEY = "mesh:billboard-corners";
 
-        if (!wasBlend) glEnable(GL_BLEND);
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+    private final Map<String, SpriteType> types = new HashMap<>();
+    private final TextureArray frames;
+    private final List<String> framePaths = new ArrayList<>();
+    private final ShaderProgram shaderProgram;
+    private final StaticMesh corners;
+    private final int vaoId, instanceVboId;
+    private int instanceCapacity;
+    private final RenderQueue.Command drawCommand;
 
-        if (wasCull) glDisable(GL_CULL_FACE);
+    // Per-frame scratch, grown as needed and reused.
+    private float[] sprites = new float[FLOATS_PER_SPRITE * 64];
+    private long[] order = new long[64];
+    private FloatBuffer upload = BufferUtils.createFloatBuffer(FLOATS_PER_SPRITE * 64);
+    private int count;
 
-        final float camYaw = cameraPlayer.getYaw();
-
-        for (Enemy e : manager.getEnemies()) {
-            QuadSet qs = cache.computeIfAbsent(e.getType().toLowerCase(), this::buildQuadSetForType);
+    public EnemySpriteRenderer(SpriteDefsLoader defs) {
+        try {
+            // Frames stream in; until then sprites are fully transparent.
+            frames = GpuResourceCache.get().acquire(FRAMES_KEY, () -> new TextureArray(
+                    GameConfig.SPRITE_TEXTURE_SIZE, GameConfig.SPRITE_TEXTURE_SIZE, GameConfig.TEXTURE_ARRAY_LAYERS, 0x00000000));
+            for (String type : defs.types()) {
+                SpriteDefsLoader.SpriteDef d = defs.get(type);
+                SpriteType t = new SpriteType(d.widthTiles * GameConfig.TILE_SIZE, d.heightTiles * GameConfig.TILE_SIZE);
+                t.layers[FRONT]      = acquireFrame(d.frontPath);
+                t.layers[SIDE_LEFT]  = acquireFrame(d.sideLeftPath);
+                t.layers[SIDE_RIGHT] = acquireFrame(d.sideRightPath);
+                t.layers[BACK]       = acquireFrame(d.backPath);
+                types.put(type, t);
+            }
+
+            String vertexShaderSource = "#version 330 core\n" +
+                    "layout(location = 0) in vec2 corner;\n" +        // x in [-0.5, 0.5], y in [0, 1]
+                    "layout(location = 1) in vec2 spritePos;\n" +     // feet at (x, 0, z)
+                    "layout(location = 2) in vec2 spriteSize;\n" +
+                    "layout(location = 3) in float layer;\n" +
+                    "out vec3 passTexCoord;\n" +
+                    CameraUniforms.GLSL_BLOCK +
+                    "void main() {\n" +
+                    "    vec3 right = vec3(view[0][0], view[1][0], view[2][0]);\n" +
+                    "    vec3 world = vec3(spritePos.x, corner.y * spriteSize.y, spritePos.y)\n" +
+                    "               + right * (corner.x * spriteSize.x);\n" +
+                    "    passTexCoord = vec3(corner.x + 0.5, 1.0 - corner.y, layer);\n" +
+                    "    gl_Position = projection * view * vec4(world, 1.0);\n" +
+                    "}";
+            String fragmentShaderSource = "#version 330 core\n" +
+                    "in vec3 passTexCoord;\n" +
+                    "out vec4 fragColor;\n" +
+                    "uniform sampler2DArray spriteTextures;\n" +
+                    "void main() {\n" +
+                    "    fragColor = texture(spriteTextures, passTexCoord);\n" +
+                    "}";
+            shaderProgram = ShaderRegistry.acquire(vertexShaderSource, fragmentShaderSource);
+            shaderProgram.use();
+            glUniform1i(shaderProgram.getUniformLocation("spriteTextures"), 0);
+            shaderProgram.stop();
+
+            float[] unitCorners = {
+                    -0.5f, 1f,   0.5f, 1f,   0.5f, 0f,
+                    -0.5f, 1f,   0.5f, 0f,  -0.5f, 0f
+            };
+            corners = GpuResourceCache.get().acquire(CORNERS_KEY, () -> new StaticMesh(unitCorners, 2));
+        } catch (Exception ex) {
+            throw new RuntimeException("EnemySpriteRenderer init failed: " + ex.getMessage(), ex);
+        }
 
-            // choose texture (front/side/back) by enemy yaw vs camera yaw
-            float delta = normalizeDeg(e.getYaw() - camYaw);
-            TexturedQuadRenderer chosen = selectRenderer(qs, delta);
+        vaoId = glGenVertexArrays();
+        GLState.bindVertexArray(vaoId);
+        glBindBuffer(GL_ARRAY_BUFFER, corners.getVboId());
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+        glEnableVertexAttribArray(0);
+
+        instanceVboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+        glBufferData(GL_ARRAY_BUFFER, 0L, GL_STREAM_DRAW);
+        int stride = FLOATS_PER_SPRITE * Float.BYTES;
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, stride, 0);
+        glVertexAttribPointer(2, 2, GL_FLOAT, false, stride, 2 * Float.BYTES);
+        glVertexAttribPointer(3, 1, GL_FLOAT, false, stride, 4 * Float.BYTES);
+        for (int a = 1; a <= 3; a++) {
+            glVertexAttribDivisor(a, 1);
+            glEnableVertexAttribArray(a);
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        GLState.bindVertexArray(0);
+
+        // item.x = number of sprites in the batch.
+        drawCommand = item -> {
+            GLState.bindVertexArray(vaoId);
+            glDrawArraysInstanced(GL_TRIANGLES, 0, 6, item.x);
+        };
+    }
 
-            // model: position at (x, z), feet on floor (y = height/2), face camera (−camYaw), stand up (+90° X)
-            Matrix4f model = new Matrix4f()
-                    .translation(e.getX(), qs.heightMeters * 0.5f, e.getZ())
-                    .rotateY((float) toRadians(-camYaw))
-                    .rotateX((float) toRadians(90.0));
+    /** Camera and enemies are placed {@code alpha} of the way from the previous simulation step. */
+    public void render(WorldSnapshot world, float camX, float camZ, float camYaw, float alpha,
+                       FrustumIntersection frustum, PotentiallyVisibleSet pvs, RenderStats stats) {
+
+        final int camRow = (int) (camZ / GameConfig.TILE_SIZE);
+        final int camCol = (int) (camX / GameConfig.TILE_SIZE);
+
+        count = 0;
+        for (int ei = 0; ei < world.getEnemyCount(); ei++) {
+            SpriteType t = spriteType(world.getEnemyType(ei));
+
+            float ex = world.getEnemyX(ei, alpha), ez = world.getEnemyZ(ei, alpha);
+            int row = (int) (ez / GameConfig.TILE_SIZE);
+            int col = (int) (ex / GameConfig.TILE_SIZE);
+            if (pvs != null && !pvs.isVisible(camRow, camCol, row, col)) {
+                stats.spritesCulled++;
+                continue;
+            }
+
+            // Bounding sphere of the billboard: centered at half height, radius = half its diagonal.
+            float radius = 0.5f * (float) sqrt(t.widthMeters * t.widthMeters + t.heightMeters * t.heightMeters);
+            if (!frustum.testSphere(ex, t.heightMeters * 0.5f, ez, radius)) {
+                stats.spritesCulled++;
+                continue;
+            }
+            stats.spritesSubmitted++;
+
+            // choose frame (front/side/back) by enemy yaw vs camera yaw
+            float delta = normalizeDeg(world.getEnemyYaw(ei, alpha) - camYaw);
+            add(ex, ez, t, t.layers[selectFrame(delta)], camX, camZ);
+        }
+        if (count == 0) return;
+
+        // Back to front: sort (distance bits, index) ascending, then write in reverse.
+        Arrays.sort(order, 0, count);
+        upload.clear();
+        for (int i = count - 1; i >= 0; i--) {
+            int src = (int) order[i] * FLOATS_PER_SPRITE;
+            upload.put(sprites, src, FLOATS_PER_SPRITE);
+        }
+        upload.flip();
 
-            chosen.render(projection, view, model);
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+        if (count > instanceCapacity) {
+            instanceCapacity = Math.max(count, instanceCapacity * 2);
+            glBufferData(GL_ARRAY_BUFFER, (long) instanceCapacity * FLOATS_PER_SPRITE * Float.BYTES, GL_STREAM_DRAW);
         }
+        glBufferSubData(GL_ARRAY_BUFFER, 0, upload);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        // The whole batch is one blended item; key it by its farthest sprite.
+        float farthest = Float.intBitsToFloat((int) (order[count - 1] >>> 32));
+        int program = shaderProgram.getId();
+        RenderQueue.Item item = RenderQueue.get().submit(
+                RenderQueue.transparentKey(program, frames.getId(), farthest), program,
+                GL_TEXTURE_2D_ARRAY, frames.getId(), RenderQueue.STATE_WORLD | RenderQueue.STATE_BLEND, drawCommand);
+        item.x = count;
+    }
 
-        if (wasCull) glEnable(GL_CULL_FACE); else glDisable(GL_CULL_FACE);
-        if (!wasBlend) glDisable(GL_BLEND);
+    // Types are stored lower-case; remember each spelling seen so lookups don't lower-case every frame.
+    private SpriteType spriteType(String type) {
+        SpriteType t = types.get(type);
+        if (t == null) {
+            t = types.get(type.toLowerCase());
+            if (t == null) throw new IllegalArgumentException("No spritedef for enemy type: " + type);
+            types.put(type, t);
+        }
+        return t;
     }
 
-    public void cleanup() {
-        for (QuadSet qs : cache.values()) qs.cleanup();
-        cache.clear();
+    private int acquireFrame(String path) {
+        framePaths.add(path);
+        return frames.acquire(path);
     }
 
-    private QuadSet buildQuadSetForType(String type) {
-        SpriteDefsLoader.SpriteDef d = defs.get(type);
-        float w = d.widthTiles  * GameConfig.TILE_SIZE;
-        float h = d.heightTiles * GameConfig.TILE_SIZE;
-        try {
-            TexturedQuadRenderer f  = new TexturedQuadRenderer(d.frontPath,     w, h);
-            TexturedQuadRenderer sl = new TexturedQuadRenderer(d.sideLeftPath,  w, h);
-            TexturedQuadRenderer sr = new TexturedQuadRenderer(d.sideRightPath, w, h);
-            TexturedQuadRenderer b  = new TexturedQuadRenderer(d.backPath,      w, h);
-            return new QuadSet(f, sl, sr, b, h);
-        } catch (Exception ex) {
-            throw new RuntimeException("EnemySpriteRenderer init failed for '" + type + "': " + ex.getMessage(), ex);
+    private void add(float x, float z, SpriteType t, int layer, float camX, float camZ) {
+        if (count == order.length) {
+            order = Arrays.copyOf(order, count * 2);
+            sprites = Arrays.copyOf(sprites, count * 2 * FLOATS_PER_SPRITE);
+            upload = BufferUtils.createFloatBuffer(count * 2 * FLOATS_PER_SPRITE);
         }
+        int i = count * FLOATS_PER_SPRITE;
+        sprites[i]     = x;
+        sprites[i + 1] = z;
+        sprites[i + 2] = t.widthMeters;
+        sprites[i + 3] = t.heightMeters;
+        sprites[i + 4] = layer;
+
+        // Non-negative float bits sort the same as the floats themselves.
+        float dx = x - camX, dz = z - camZ;
+        float dist = (float) sqrt(dx * dx + dz * dz);
+        order[count] = ((long) Float.floatToIntBits(dist) << 32) | count;
+        count++;
+    }
+
+    public void cleanup() {
+        ShaderRegistry.release(shaderProgram);
+        GpuResourceCache.get().release(CORNERS_KEY);
+        glDeleteBuffers(instanceVboId);
+        GLState.deleteVertexArray(vaoId);
+        for (String path : framePaths) frames.release(path);
+        GpuResourceCache.get().release(FRAMES_KEY);
+        types.clear();
     }
 
-    private static TexturedQuadRenderer selectRenderer(QuadSet qs, float deltaDeg) {
+    private static int selectFrame(float deltaDeg) {
         float a = abs(deltaDeg);
-        if (a <= 45f)  return qs.front; // facing camera
-        if (a >= 135f) return qs.back;  // facing away
-        return (deltaDeg > 0f) ? qs.sideLeft : qs.sideRight;
+        if (a <= 45f)  return FRONT; // facing camera
+        if (a >= 135f) return BACK;  // facing away
+        return (deltaDeg > 0f) ? SIDE_LEFT : SIDE_RIGHT;
     }
 
     private static float normalizeDeg(float a) {
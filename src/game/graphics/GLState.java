@@ -0,0 +1,176 @@
+package game.graphics;
+
+import game.config.GameConfig;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.*;
+import static org.lwjgl.opengl.GL13.*;
+import static org.lwjgl.opengl.GL14.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Shadow copy of the GL state the game touches: bound program, vertex array,
+ * textures per unit, the enable flags, depth func and mask, colour mask and the
+ * blend function. Calls that would
+ * not change anything are dropped, and the driver is never queried. Everything
+ * that binds or deletes these objects must go through here, or the shadow goes
+ * stale. GL thread only.
+ * <p>
+ * With {@code -Dgl.state.debug=true} the tracker counts issued and skipped calls.
+ */
+public final class GLState {
+    private static final int UNKNOWN = -1;
+    private static final int MAX_UNITS = 8;
+
+    // Flags we track; anything else is passed straight through.
+    private static final int[] CAPS = { GL_DEPTH_TEST, GL_BLEND, GL_CULL_FACE };
+    private static final int[] enabled = new int[CAPS.length];   // 1 on, 0 off, UNKNOWN
+
+    private static int program, vertexArray, activeUnit, depthMask, depthFunc, colorMask, blendSrc, blendDst;
+    private static int blendSrcAlpha, blendDstAlpha;
+    private static final int[] texture2D = new int[MAX_UNITS];
+    private static final int[] texture2DArray = new int[MAX_UNITS];
+
+    private static long issued, skipped;
+
+    static { invalidate(); }
+
+    private GLState() {}
+
+    /** Forgets everything, so the next call of each kind is issued; use after outside code touched GL. */
+    public static void invalidate() {
+        program = vertexArray = activeUnit = depthMask = depthFunc = colorMask = blendSrc = blendDst = UNKNOWN;
+        blendSrcAlpha = blendDstAlpha = UNKNOWN;
+        Arrays.fill(enabled, UNKNOWN);
+        Arrays.fill(texture2D, UNKNOWN);
+        Arrays.fill(texture2DArray, UNKNOWN);
+    }
+
+    public static void useProgram(int id) {
+        if (program == id) { skip(); return; }
+        glUseProgram(id);
+        program = id;
+        issue();
+    }
+
+    public static void bindVertexArray(int id) {
+        if (vertexArray == id) { skip(); return; }
+        glBindVertexArray(id);
+        vertexArray = id;
+        issue();
+    }
+
+    public static void activeTexture(int unit) {
+        if (activeUnit == unit) { skip(); return; }
+        glActiveTexture(GL_TEXTURE0 + unit);
+        activeUnit = unit;
+        issue();
+    }
+
+    /** Binds on the active unit. Targets other than 2D and 2D_ARRAY aren't tracked. */
+    public static void bindTexture(int target, int id) {
+        int[] slots = target == GL_TEXTURE_2D ? texture2D : target == GL_TEXTURE_2D_ARRAY ? texture2DArray : null;
+        if (activeUnit == UNKNOWN) activeTexture(0);
+        int unit = activeUnit;
+        if (slots != null && slots[unit] == id) { skip(); return; }
+        glBindTexture(target, id);
+        if (slots != null) slots[unit] = id;
+        issue();
+    }
+
+    public static void enable(int cap)  { set(cap, true); }
+
+    public static void disable(int cap) { set(cap, false); }
+
+    public static void set(int cap, boolean on) {
+        int slot = capSlot(cap);
+        int want = on ? 1 : 0;
+        if (slot >= 0 && enabled[slot] == want) { skip(); return; }
+        if (on) glEnable(cap); else glDisable(cap);
+        if (slot >= 0) enabled[slot] = want;
+        issue();
+    }
+
+    public static void depthMask(boolean write) {
+        int want = write ? 1 : 0;
+        if (depthMask == want) { skip(); return; }
+        glDepthMask(write);
+        depthMask = want;
+        issue();
+    }
+
+    public static void depthFunc(int func) {
+        if (depthFunc == func) { skip(); return; }
+        glDepthFunc(func);
+        depthFunc = func;
+        issue();
+    }
+
+    /** All four channels together; depth-only passes turn them off. */
+    public static void colorMask(boolean write) {
+        int want = write ? 1 : 0;
+        if (colorMask == want) { skip(); return; }
+        glColorMask(write, write, write, write);
+        colorMask = want;
+        issue();
+    }
+
+    public static void blendFunc(int src, int dst) {
+        blendFuncSeparate(src, dst, src, dst);
+    }
+
+    public static void blendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        if (blendSrc == srcRGB && blendDst == dstRGB && blendSrcAlpha == srcAlpha && blendDstAlpha == dstAlpha) {
+            skip();
+            return;
+        }
+        glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+        blendSrc = srcRGB;
+        blendDst = dstRGB;
+        blendSrcAlpha = srcAlpha;
+        blendDstAlpha = dstAlpha;
+        issue();
+    }
+
+    // Deleting a bound object silently rebinds 0, and ids get reused, so the shadow must follow.
+    public static void deleteTexture(int id) {
+        glDeleteTextures(id);
+        for (int u = 0; u < MAX_UNITS; u++) {
+            if (texture2D[u] == id) texture2D[u] = 0;
+            if (texture2DArray[u] == id) texture2DArray[u] = 0;
+        }
+    }
+
+    public static void deleteProgram(int id) {
+        glDeleteProgram(id);
+        if (program == id) program = 0;
+    }
+
+    public static void deleteVertexArray(int id) {
+        glDeleteVertexArrays(id);
+        if (vertexArray == id) vertexArray = 0;
+    }
+
+    private static int capSlot(int cap) {
+        for (int i = 0; i < CAPS.length; i++) if (CAPS[i] == cap) return i;
+        return -1;
+    }
+
+    private static void issue() { if (GameConfig.GL_STATE_DEBUG) issued++; }
+
+    private static void skip()  { if (GameConfig.GL_STATE_DEBUG) skipped++; }
+
+    /** Calls that reached GL, and calls dropped as redundant; both stay 0 unless debugging. */
+    public static long getIssuedCount()  { return issued; }
+
+    public static long getSkippedCount() { return skipped; }
+
+    public static void resetCounters() { issued = skipped = 0; }
+
+    public static String summary() {
+        return issued + " GL state calls issued, " + skipped + " skipped";
+    }
+}
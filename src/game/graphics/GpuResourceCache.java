@@ -0,0 +1,101 @@
+package game.graphics;
+
+import game.config.GameConfig;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Long-lived GL resources (texture arrays, shared meshes, programs) keyed by asset
+ * path. Users acquire and release; a resource whose count drops to zero stays
+ * resident so the next level can pick it up for free, until the total crosses
+ * the VRAM budget and the least recently used unreferenced entries are disposed.
+ * GL thread only.
+ */
+public final class GpuResourceCache {
+
+    public interface Resource {
+        /** Approximate GPU memory held; may change over the resource's life. */
+        long getGpuBytes();
+        void dispose();
+    }
+
+    public interface Factory<T extends Resource> {
+        T create() throws Exception;
+    }
+
+    private static final class Entry {
+        final Resource resource;
+        int refs;
+        Entry(Resource resource) { this.resource = resource; }
+    }
+
+    private static final GpuResourceCache INSTANCE = new GpuResourceCache(GameConfig.GPU_CACHE_BUDGET_BYTES);
+
+    // Access order, so iteration runs least recently used first.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long budgetBytes;
+    private int hits, misses, evictions;
+
+    private GpuResourceCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public static GpuResourceCache get() { return INSTANCE; }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> T acquire(String key, Factory<T> factory) throws Exception {
+        Entry e = entries.get(key);
+        if (e != null) {
+            hits++;
+            e.refs++;
+            return (T) e.resource;
+        }
+        misses++;
+        T resource = factory.create();
+        e = new Entry(resource);
+        e.refs = 1;
+        entries.put(key, e);
+        evictToBudget();
+        return resource;
+    }
+
+    public void release(String key) {
+        Entry e = entries.get(key);
+        if (e == null) return;
+        if (e.refs > 0) e.refs--;
+        evictToBudget();
+    }
+
+    private void evictToBudget() {
+        long resident = getResidentBytes();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (resident > budgetBytes && it.hasNext()) {
+            Entry e = it.next().getValue();
+            if (e.refs > 0) continue;
+            resident -= e.resource.getGpuBytes();
+            e.resource.dispose();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public long getResidentBytes() {
+        long total = 0;
+        for (Entry e : entries.values()) total += e.resource.getGpuBytes();
+        return total;
+    }
+
+    /** Disposes everything, referenced or not; for shutdown. */
+    public void clear() {
+        for (Entry e : entries.values()) e.resource.dispose();
+        entries.clear();
+    }
+
+    @Override
+    public String toString() {
+        return entries.size() + " resident (" + (getResidentBytes() >> 10) + " KB of " + (budgetBytes >> 10)
+                + " KB), " + hits + " hits / " + misses + " misses / " + evictions + " evictions";
+    }
+}
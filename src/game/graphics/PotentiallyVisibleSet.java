@@ -0,0 +1,397 @@
+package game.graphics;
+
+import game.map.Tile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precomputed cell-to-cell visibility for a tile map.
+ *
+ * At load time every cell the player can stand in (walkable or openable) gets a
+ * bitset of the cells that may be seen from anywhere inside it, within {@code radius}
+ * cells. The set is conservative: a cell is left out only when solid walls cut every
+ * sight line between the two cells, so it may over-include but never drops a visible
+ * cell. Doors are treated as open so the bitsets never need rebuilding. Each bitset
+ * covers the radius window clamped to the map, so on maps smaller than the view
+ * distance it is one bit per map cell.
+ *
+ * Doors then act as portals at runtime: walkable cells are grouped into rooms that
+ * only connect through door cells, and a cell only counts as visible if its room
+ * (or, for walls and doors, a neighbouring room) is reachable from the viewer's
+ * room through currently open doors.
+ */
+public final class PotentiallyVisibleSet {
+    private static final int SUBDIVISIONS = 2;   // parts per cell side when refining a hull test
+    private static final int[][] OFFSETS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private final Tile[][] tiles;
+    private final int rows, cols;
+    private final int radius, wordsPerCell;
+    private final int winRows, winCols;  // per-cell window: radius square clamped to the map
+    private final boolean[] opaque;     // solid walls at build time; doors count as open
+
+    private final long[][] bits;        // per source cell; null if the player can't stand there
+    private final int[] roomOf;         // room id per cell, -1 for walls and doors
+    private final int[][] gateRooms;    // rooms a wall/door cell is seen from
+    private final int[][] roomDoors;    // door cell indices bordering each room
+    private final int[][] doorRooms;    // rooms on either side of each door cell (by cell index)
+
+    private final boolean[] reachable;
+    private final int[] queue;          // rooms waiting in the portal flood fill
+    private int reachableFrom = -1;
+    private boolean portalsDirty = true;
+
+    private PotentiallyVisibleSet(Tile[][] tiles, int radius) {
+        this.tiles = tiles;
+        this.rows = tiles.length;
+        this.cols = tiles[0].length;
+        this.radius = radius;
+        this.winRows = Math.min(radius * 2 + 1, rows);
+        this.winCols = Math.min(radius * 2 + 1, cols);
+        this.wordsPerCell = (winRows * winCols + 63) / 64;
+        this.bits = new long[rows * cols][];
+        this.roomOf = new int[rows * cols];
+        this.gateRooms = new int[rows * cols][];
+        this.doorRooms = new int[rows * cols][];
+        this.opaque = new boolean[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Tile t = tiles[r][c];
+                opaque[r * cols + c] = "cube".equals(t.getDefinition().getRenderer())
+                        && !t.isWalkable() && !t.isOpenable();
+            }
+        }
+
+        int roomCount = labelRooms();
+        this.roomDoors = linkDoors(roomCount);
+        this.reachable = new boolean[roomCount];
+        this.queue = new int[roomCount];
+    }
+
+    /** Builds the PVS for every standable cell; {@code radius} is the view distance in cells. */
+    public static PotentiallyVisibleSet build(Tile[][] tiles, int radius) {
+        PotentiallyVisibleSet pvs = new PotentiallyVisibleSet(tiles, radius);
+        Scratch scratch = new Scratch(pvs.winRows * pvs.winCols);
+        for (int r = 0; r < pvs.rows; r++) {
+            for (int c = 0; c < pvs.cols; c++) {
+                Tile t = tiles[r][c];
+                if (t.isWalkable() || t.isOpenable()) {
+                    pvs.bits[r * pvs.cols + c] = pvs.computeCell(r, c, scratch);
+                }
+            }
+        }
+        return pvs;
+    }
+
+    public boolean hasCell(int row, int col) {
+        return inBounds(row, col) && bits[row * cols + col] != null;
+    }
+
+    /** Call when any door opens or closes; portal reachability is recomputed lazily. */
+    public void invalidatePortals() {
+        portalsDirty = true;
+    }
+
+    /** True if (row, col) may be visible from (fromRow, fromCol) given the current door states. */
+    public boolean isVisible(int fromRow, int fromCol, int row, int col) {
+        if (!hasCell(fromRow, fromCol)) return true;
+        int dr = row - fromRow, dc = col - fromCol;
+        if (Math.abs(dr) > radius || Math.abs(dc) > radius || !inBounds(row, col)) return false;
+        long[] set = bits[fromRow * cols + fromCol];
+        int bit = (row - windowRow(fromRow)) * winCols + (col - windowCol(fromCol));
+        if ((set[bit >>> 6] & (1L << bit)) == 0) return false;
+        updateReachable(fromRow, fromCol);
+        return passesPortals(row * cols + col);
+    }
+
+    /**
+     * Sets {@code out[chunk]} for every chunk holding at least one cell visible from
+     * (fromRow, fromCol). Returns false (leaving {@code out} untouched) if there is no
+     * PVS for that cell, in which case the caller should draw everything.
+     */
+    public boolean markVisibleChunks(int fromRow, int fromCol, int chunkSize, int chunkCols, boolean[] out) {
+        if (!hasCell(fromRow, fromCol)) return false;
+        updateReachable(fromRow, fromCol);
+        Arrays.fill(out, false);
+
+        long[] set = bits[fromRow * cols + fromCol];
+        int row0 = windowRow(fromRow), col0 = windowCol(fromCol);
+        for (int w = 0; w < set.length; w++) {
+            long word = set[w];
+            while (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int row = row0 + bit / winCols;
+                int col = col0 + bit % winCols;
+                if (passesPortals(row * cols + col)) {
+                    out[(row / chunkSize) * chunkCols + (col / chunkSize)] = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    // --- runtime portal gating ---
+
+    private void updateReachable(int fromRow, int fromCol) {
+        int from = fromRow * cols + fromCol;
+        if (!portalsDirty && from == reachableFrom) return;
+        reachableFrom = from;
+        portalsDirty = false;
+
+        // Each room is queued at most once, so the queue never needs more than one slot per room.
+        Arrays.fill(reachable, false);
+        int head = 0, tail = 0;
+        if (roomOf[from] >= 0) {
+            tail = enqueue(tail, roomOf[from]);
+        } else if (gateRooms[from] != null) {
+            for (int room : gateRooms[from]) tail = enqueue(tail, room);
+        }
+        while (head < tail) {
+            int room = queue[head++];
+            for (int door : roomDoors[room]) {
+                Tile t = tiles[door / cols][door % cols];
+                if (!t.isOpen()) continue;
+                for (int other : doorRooms[door]) tail = enqueue(tail, other);
+            }
+        }
+    }
+
+    private int enqueue(int tail, int room) {
+        if (reachable[room]) return tail;
+        reachable[room] = true;
+        queue[tail] = room;
+        return tail + 1;
+    }
+
+    private boolean passesPortals(int cell) {
+        if (roomOf[cell] >= 0) return reachable[roomOf[cell]];
+        int[] gates = gateRooms[cell];
+        if (gates == null) return false;
+        for (int room : gates) {
+            if (reachable[room]) return true;
+        }
+        return false;
+    }
+
+    // --- load-time build ---
+
+    private boolean isOpaque(int r, int c) {
+        return opaque[r * cols + c];
+    }
+
+    private boolean isDoor(int r, int c) {
+        return tiles[r][c].isOpenable();
+    }
+
+    // Flood-fills 4-connected see-through, non-door cells into rooms.
+    private int labelRooms() {
+        Arrays.fill(roomOf, -1);
+        int next = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int start = 0; start < rows * cols; start++) {
+            int sr = start / cols, sc = start % cols;
+            if (roomOf[start] >= 0 || isOpaque(sr, sc) || isDoor(sr, sc)) continue;
+            roomOf[start] = next;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int cell = queue.poll();
+                int r = cell / cols, c = cell % cols;
+                for (int[] o : OFFSETS) {
+                    int nr = r + o[0], nc = c + o[1];
+                    if (!inBounds(nr, nc)) continue;
+                    int n = nr * cols + nc;
+                    if (roomOf[n] >= 0 || isOpaque(nr, nc) || isDoor(nr, nc)) continue;
+                    roomOf[n] = next;
+                    queue.add(n);
+                }
+            }
+            next++;
+        }
+        return next;
+    }
+
+    // Records which rooms each door joins and which rooms gate each wall/door cell.
+    private int[][] linkDoors(int roomCount) {
+        List<List<Integer>> doorsOfRoom = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) doorsOfRoom.add(new ArrayList<>());
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!isDoor(r, c)) continue;
+                int cell = r * cols + c;
+                List<Integer> rooms = new ArrayList<>();
+                for (int[] o : OFFSETS) {
+                    int nr = r + o[0], nc = c + o[1];
+                    if (!inBounds(nr, nc)) continue;
+                    int room = roomOf[nr * cols + nc];
+                    if (room >= 0 && !rooms.contains(room)) {
+                        rooms.add(room);
+                        doorsOfRoom.get(room).add(cell);
+                    }
+                }
+                doorRooms[cell] = toArray(rooms);
+            }
+        }
+
+        // Walls and doors are seen from their neighbouring rooms, or through a neighbouring door.
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int cell = r * cols + c;
+                if (roomOf[cell] >= 0) continue;
+                List<Integer> rooms = new ArrayList<>();
+                for (int[] o : OFFSETS) {
+                    int nr = r + o[0], nc = c + o[1];
+                    if (!inBounds(nr, nc)) continue;
+                    int n = nr * cols + nc;
+                    if (roomOf[n] >= 0) {
+                        if (!rooms.contains(roomOf[n])) rooms.add(roomOf[n]);
+                    } else if (doorRooms[n] != null) {
+                        for (int room : doorRooms[n]) if (!rooms.contains(room)) rooms.add(room);
+                    }
+                }
+                if (doorRooms[cell] != null) {
+                    for (int room : doorRooms[cell]) if (!rooms.contains(room)) rooms.add(room);
+                }
+                if (!rooms.isEmpty()) gateRooms[cell] = toArray(rooms);
+            }
+        }
+
+        int[][] result = new int[roomCount][];
+        for (int i = 0; i < roomCount; i++) result[i] = toArray(doorsOfRoom.get(i));
+        return result;
+    }
+
+    // Bit set for every window cell passing mayBeVisible; the source can see itself.
+    private long[] computeCell(int row, int col, Scratch s) {
+        int row0 = windowRow(row), col0 = windowCol(col);
+        long[] out = new long[wordsPerCell];
+        for (int r = row0; r < row0 + winRows; r++) {
+            for (int c = col0; c < col0 + winCols; c++) {
+                if ((r == row && c == col) || mayBeVisible(row, col, r, c, s)) {
+                    int bit = (r - row0) * winCols + (c - col0);
+                    out[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        return out;
+    }
+
+    /*
+     * Conservative: false only if no sight line joins any point of the source to any
+     * point of the target. Every such line lies in the convex hull of the two cells, so
+     * it can only exist if see-through cells connect them inside that hull; walls are
+     * solid, but a corner where two walls meet diagonally lets a line through. The
+     * cells are split into SUBDIVISIONS^2 parts and the target kept if any pair of
+     * parts connects, since a sight line joins some pair; finer parts give tighter hulls.
+     */
+    private boolean mayBeVisible(int row, int col, int tRow, int tCol, Scratch s) {
+        if (centresSeeEachOther(row, col, tRow, tCol)) return true;
+        if (!hullConnects(row, col, tRow, tCol, 0, 0, 0, 0, 1, s)) return false;
+        for (int i = 0; i < SUBDIVISIONS * SUBDIVISIONS; i++) {
+            for (int j = 0; j < SUBDIVISIONS * SUBDIVISIONS; j++) {
+                if (hullConnects(row, col, tRow, tCol, i % SUBDIVISIONS, i / SUBDIVISIONS,
+                        j % SUBDIVISIONS, j / SUBDIVISIONS, SUBDIVISIONS, s)) return true;
+            }
+        }
+        return false;
+    }
+
+    // Walks the cells the centre-to-centre segment crosses, in exact integer steps; through a grid corner it steps diagonally.
+    private boolean centresSeeEachOther(int row, int col, int tRow, int tCol) {
+        int nx = Math.abs(tCol - col), nz = Math.abs(tRow - row);
+        int stepX = tCol > col ? 1 : -1, stepZ = tRow > row ? 1 : -1;
+        int c = col, r = row;
+        for (int ix = 0, iz = 0; ix < nx || iz < nz; ) {
+            long cmp = (long) (1 + 2 * ix) * nz - (long) (1 + 2 * iz) * nx;
+            if (cmp <= 0) { c += stepX; ix++; }
+            if (cmp >= 0) { r += stepZ; iz++; }
+            if (r == tRow && c == tCol) return true;
+            if (isOpaque(r, c)) return false;
+        }
+        return true;
+    }
+
+    /*
+     * Flood fill over see-through cells from the source, through shared edges and corners
+     * that touch the hull, until a cell borders the target (walls included). Coordinates
+     * are scaled by k so the parts are unit squares: part (px, pz) of cell (r, c) has its
+     * low corner at (c*k + px, r*k + pz). The hull is then that unit square swept along
+     * the segment between the two parts' low corners, so a box touches the hull exactly
+     * when the segment touches the box grown by one unit towards negative x and z.
+     */
+    private boolean hullConnects(int row, int col, int tRow, int tCol,
+                                 int sx, int sz, int tx, int tz, int k, Scratch s) {
+        long x0 = (long) col * k + sx, z0 = (long) row * k + sz;
+        long x1 = (long) tCol * k + tx, z1 = (long) tRow * k + tz;
+        int row0 = windowRow(row), col0 = windowCol(col);
+        int stamp = ++s.stamp;
+        int head = 0, tail = 0;
+        s.visited[(row - row0) * winCols + (col - col0)] = stamp;
+        s.queue[tail++] = row * cols + col;
+        while (head < tail) {
+            int cell = s.queue[head++];
+            int r = cell / cols, c = cell % cols;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dr == 0 && dc == 0) continue;
+                    int nr = r + dr, nc = c + dc;
+                    int wr = nr - row0, wc = nc - col0;
+                    if (wr < 0 || wr >= winRows || wc < 0 || wc >= winCols) continue;
+                    int w = wr * winCols + wc;
+                    if (s.visited[w] == stamp) continue;
+                    // The shared edge or corner, as a box in scaled coordinates.
+                    long bx0 = (long) (dc > 0 ? c + 1 : c) * k, bx1 = (long) (dc < 0 ? c : c + 1) * k;
+                    long bz0 = (long) (dr > 0 ? r + 1 : r) * k, bz1 = (long) (dr < 0 ? r : r + 1) * k;
+                    if (!segmentTouchesBox(x0, z0, x1, z1, bx0 - 1, bz0 - 1, bx1, bz1)) continue;
+                    if (nr == tRow && nc == tCol) return true;
+                    if (isOpaque(nr, nc)) continue;
+                    s.visited[w] = stamp;
+                    s.queue[tail++] = nr * cols + nc;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Exact: the closed segment meets the closed box if their bounds overlap and the box's corners don't all lie strictly to one side of the line.
+    private static boolean segmentTouchesBox(long x0, long z0, long x1, long z1,
+                                             long bx0, long bz0, long bx1, long bz1) {
+        if (Math.max(x0, x1) < bx0 || Math.min(x0, x1) > bx1) return false;
+        if (Math.max(z0, z1) < bz0 || Math.min(z0, z1) > bz1) return false;
+        long dx = x1 - x0, dz = z1 - z0;
+        long a = dx * (bz0 - z0) - dz * (bx0 - x0);
+        long b = dx * (bz0 - z0) - dz * (bx1 - x0);
+        long c = dx * (bz1 - z0) - dz * (bx0 - x0);
+        long d = dx * (bz1 - z0) - dz * (bx1 - x0);
+        return Math.min(Math.min(a, b), Math.min(c, d)) <= 0 && Math.max(Math.max(a, b), Math.max(c, d)) >= 0;
+    }
+
+    // Per-build flood fill state, reused for every pair; visited is stamped instead of cleared.
+    private static final class Scratch {
+        final int[] visited, queue;
+        int stamp;
+
+        Scratch(int cells) {
+            visited = new int[cells];
+            queue = new int[cells];
+        }
+    }
+
+    // Top-left of a cell's window: centred on it, shifted to stay inside the map.
+    private int windowRow(int row) { return Math.max(0, Math.min(row - radius, rows - winRows)); }
+    private int windowCol(int col) { return Math.max(0, Math.min(col - radius, cols - winCols)); }
+
+    private boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] a = new int[list.size()];
+        for (int i = 0; i < a.length; i++) a[i] = list.get(i);
+        return a;
+    }
+}
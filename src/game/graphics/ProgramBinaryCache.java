@@ -0,0 +1,133 @@
+package game.graphics;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL41.*;
+
+/**
+ * On-disk cache of linked program binaries (GL 4.1 / ARB_get_program_binary).
+ * Entries are keyed by a hash of both shader sources plus the GL vendor, renderer
+ * and version strings, since a binary is only valid for the driver that made it:
+ *
+ *   int magic 'DLPB', int version, int binaryFormat, int length, then the binary
+ *
+ * Drivers may still reject a binary after an update; the caller then links from
+ * source and stores a fresh one.
+ */
+final class ProgramBinaryCache {
+    private static final int MAGIC = 0x444C5042;   // "DLPB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final Path DIR = Paths.get("shadercache");
+
+    private static Boolean supported;
+    private static int hits, rejects, stores;
+
+    private ProgramBinaryCache() {}
+
+    static boolean isSupported() {
+        if (supported == null) {
+            GLCapabilities caps = GL.getCapabilities();
+            supported = (caps.OpenGL41 || caps.GL_ARB_get_program_binary)
+                    && glGetInteger(GL_NUM_PROGRAM_BINARY_FORMATS) > 0;
+        }
+        return supported;
+    }
+
+    static String key(String vertexSource, String fragmentSource) throws Exception {
+        MessageDigest sha = MessageDigest.getInstance("SHA-1");
+        for (String part : new String[] { vertexSource, fragmentSource,
+                glGetString(GL_VENDOR), glGetString(GL_RENDERER), glGetString(GL_VERSION) }) {
+            sha.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+        }
+        StringBuilder sb = new StringBuilder(40);
+        for (byte b : sha.digest()) sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+
+    /** Loads a cached binary into {@code program}; false if there is none or the driver rejected it. */
+    static boolean load(int program, String key) {
+        Path entry = DIR.resolve(key + ".bin");
+        if (!Files.isRegularFile(entry)) return false;
+        ByteBuffer data = null;
+        try (FileChannel ch = FileChannel.open(entry, StandardOpenOption.READ)) {
+            data = MemoryUtil.memAlloc((int) ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (data.hasRemaining() && ch.read(data) >= 0) { }
+            data.flip();
+            if (data.remaining() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION
+                    || data.getInt(12) != data.remaining() - HEADER_BYTES) {
+                return reject(entry);
+            }
+            int format = data.getInt(8);
+            glProgramBinary(program, format, data.slice(HEADER_BYTES, data.remaining() - HEADER_BYTES));
+            if (glGetProgrami(program, GL_LINK_STATUS) == 0) return reject(entry);
+            hits++;
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (data != null) MemoryUtil.memFree(data);
+        }
+    }
+
+    // Stale or corrupt entry: drop it so it's rewritten after the source link.
+    private static boolean reject(Path entry) {
+        rejects++;
+        try {
+            Files.deleteIfExists(entry);
+        } catch (IOException ignored) {
+        }
+        return false;
+    }
+
+    /** Writes the binary of a linked program; it must have been linked with the retrievable hint. */
+    static void store(int program, String key) {
+        int length = glGetProgrami(program, GL_PROGRAM_BINARY_LENGTH);
+        if (length <= 0) return;
+        ByteBuffer data = MemoryUtil.memAlloc(HEADER_BYTES + length).order(ByteOrder.LITTLE_ENDIAN);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer written = stack.mallocInt(1);
+            IntBuffer format = stack.mallocInt(1);
+            glGetProgramBinary(program, written, format, data.slice(HEADER_BYTES, length));
+            data.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, format.get(0)).putInt(12, written.get(0));
+            data.limit(HEADER_BYTES + written.get(0));
+
+            Files.createDirectories(DIR);
+            Path tmp = Files.createTempFile(DIR, "prog", ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (data.hasRemaining()) ch.write(data);
+            }
+            Files.move(tmp, DIR.resolve(key + ".bin"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            stores++;
+        } catch (IOException e) {
+            System.err.println("Program binary cache write failed: " + e.getMessage());
+        } finally {
+            MemoryUtil.memFree(data);
+        }
+    }
+
+    static int getHits() { return hits; }
+
+    static int getRejects() { return rejects; }
+
+    static int getStores() { return stores; }
+}
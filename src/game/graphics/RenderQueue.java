@@ -0,0 +1,266 @@
+package game.graphics;
+
+import game.config.GameConfig;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * Frame-wide draw list. Passes submit items tagged with a 64-bit sort key and
+ * the program, texture and fixed state they need; {@link #flush()} sorts once
+ * and executes them through {@link GLState}, so unchanged state costs no GL call.
+ *
+ * Key layout (most significant first):
+ *   depth:       pass(4) | program(12) | 0(16) | depth(24, near first) | 0(8)
+ *   opaque:      pass(4) | program(12) | texture(16) | depth(24, near first) | 0(8)
+ *   transparent: pass(4) | depth(24, far first) | program(12) | texture(16) | 0(8)
+ *   ui:          pass(4) | 0(28) | submission order(32)
+ */
+public final class RenderQueue {
+    public static final int PASS_DEPTH = 0, PASS_OPAQUE = 1, PASS_TRANSPARENT = 2, PASS_UI = 3;
+
+    // Fixed state an item requires; anything not set is disabled.
+    public static final int STATE_DEPTH_TEST  = 1;
+    public static final int STATE_DEPTH_WRITE = 1 << 1;
+    public static final int STATE_BLEND       = 1 << 2;   // SRC_ALPHA, ONE_MINUS_SRC_ALPHA
+    public static final int STATE_CULL        = 1 << 3;
+    public static final int STATE_NO_COLOR    = 1 << 5;   // depth-only: colour writes masked off
+    public static final int STATE_DEPTH_LEQUAL = 1 << 6;  // depth func LEQUAL instead of LESS
+    public static final int STATE_WORLD = STATE_DEPTH_TEST | STATE_DEPTH_WRITE;
+    // Depth pre-pass, then shading against the laid-down depth without writing it again.
+    public static final int STATE_PREPASS = STATE_DEPTH_TEST | STATE_DEPTH_WRITE | STATE_NO_COLOR;
+    public static final int STATE_WORLD_AFTER_PREPASS = STATE_DEPTH_TEST | STATE_DEPTH_LEQUAL;
+
+    private static final int DEPTH_MAX = 0xFFFFFF;
+    private static final float DEPTH_SCALE = 4096f;   // 1/4096 world units per step, up to ~4 km
+
+    /** Executes one item; program, texture and state are already bound. */
+    public interface Command {
+        void draw(Item item);
+    }
+
+    /** A pooled queue entry. Submitters fill whichever argument fields their command reads. */
+    public static final class Item {
+        long key;
+        int program, textureTarget, texture, state;
+        Command command;
+
+        public Object payload;
+        public int x, y, w, h;
+        public float r, g, b, a;
+        public final Matrix4f matrix = new Matrix4f();
+    }
+
+    private static final RenderQueue INSTANCE = new RenderQueue();
+
+    private Item[] items = new Item[256];
+    private Item[] sortScratch = new Item[256];
+    private int size;
+    private int uiSequence;
+
+    // State while flushing, for the switch counters; -1 = none yet.
+    private int curProgram, curTexture, curTarget, curState;
+
+    private int programSwitches, textureSwitches, stateSwitches, itemsDrawn;
+
+    // GL_SAMPLES_PASSED over the shading passes (opaque and transparent) and, separately,
+    // the depth pre-pass, so turning the pre-pass on doesn't add its own fragments to the
+    // fill it is meant to cut. Only with GameConfig.SAMPLE_QUERIES.
+    private final SampleCounter shadingSamples = new SampleCounter();
+    private final SampleCounter prepassSamples = new SampleCounter();
+
+    private RenderQueue() {
+        for (int i = 0; i < items.length; i++) items[i] = new Item();
+    }
+
+    public static RenderQueue get() { return INSTANCE; }
+
+    public static long depthKey(int program, float depth) {
+        return ((long) PASS_DEPTH << 60) | ((long) (program & 0xFFF) << 48) | ((long) quantize(depth) << 8);
+    }
+
+    public static long opaqueKey(int program, int texture, float depth) {
+        return ((long) PASS_OPAQUE << 60) | ((long) (program & 0xFFF) << 48)
+                | ((long) (texture & 0xFFFF) << 32) | ((long) quantize(depth) << 8);
+    }
+
+    public static long transparentKey(int program, int texture, float depth) {
+        return ((long) PASS_TRANSPARENT << 60) | ((long) (DEPTH_MAX - quantize(depth)) << 36)
+                | ((long) (program & 0xFFF) << 24) | ((long) (texture & 0xFFFF) << 8);
+    }
+
+    private static int quantize(float depth) {
+        return (int) Math.max(0f, Math.min(DEPTH_MAX, depth * DEPTH_SCALE));
+    }
+
+    /**
+     * Queues a draw. {@code program} 0 means none, {@code texture} 0 means
+     * none. The returned item is reused next frame, so fill it and let it go.
+     */
+    public Item submit(long key, int program, int textureTarget, int texture, int state, Command command) {
+        if (size == items.length) {
+            int old = items.length;
+            items = Arrays.copyOf(items, old * 2);
+            for (int i = old; i < items.length; i++) items[i] = new Item();
+        }
+        Item it = items[size++];
+        it.key = key;
+        it.program = program;
+        it.textureTarget = textureTarget;
+        it.texture = texture;
+        it.state = state;
+        it.command = command;
+        it.payload = null;
+        return it;
+    }
+
+    /** UI items keep submission order and draw after every world pass. */
+    public Item submitUi(int program, int textureTarget, int texture, int state, Command command) {
+        long key = ((long) PASS_UI << 60) | (uiSequence++ & 0xFFFFFFFFL);
+        return submit(key, program, textureTarget, texture, state, command);
+    }
+
+    /** Sorts and executes everything submitted this frame, then empties the queue. */
+    public void flush() {
+        sortItems();
+
+        programSwitches = textureSwitches = stateSwitches = 0;
+        curProgram = curTexture = curTarget = curState = -1;
+        GLState.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLState.activeTexture(0);
+        SampleCounter counting = null;
+
+        for (int i = 0; i < size; i++) {
+            Item it = items[i];
+            if (GameConfig.SAMPLE_QUERIES) {
+                // Sorted by pass, so each counter's items are contiguous.
+                SampleCounter want = counterFor((int) (it.key >>> 60));
+                if (want != counting) {
+                    if (counting != null) counting.end();
+                    if (want != null) want.begin();
+                    counting = want;
+                }
+            }
+            applyState(it.state);
+            if (it.program != curProgram) {
+                GLState.useProgram(it.program);
+                curProgram = it.program;
+                programSwitches++;
+            }
+            if (it.texture != 0 && (it.texture != curTexture || it.textureTarget != curTarget)) {
+                GLState.bindTexture(it.textureTarget, it.texture);
+                curTexture = it.texture;
+                curTarget = it.textureTarget;
+                textureSwitches++;
+            }
+            it.command.draw(it);
+            it.payload = null;
+        }
+        if (counting != null) counting.end();
+        itemsDrawn = size;
+        size = 0;
+        uiSequence = 0;
+
+        // Leave no program and world state for code drawing outside the queue (not counted).
+        int switches = stateSwitches;
+        GLState.bindVertexArray(0);
+        GLState.useProgram(0);
+        applyState(STATE_WORLD);
+        stateSwitches = switches;
+    }
+
+    private SampleCounter counterFor(int pass) {
+        switch (pass) {
+            case PASS_DEPTH:       return prepassSamples;
+            case PASS_OPAQUE:
+            case PASS_TRANSPARENT: return shadingSamples;
+            default:               return null;
+        }
+    }
+
+    /** Average shaded world samples (fragments passing depth) per frame since the last call, then resets. */
+    public long takeAverageSamples() { return shadingSamples.takeAverage(); }
+
+    /** Same for the depth pre-pass; 0 while it is off. */
+    public long takeAveragePrepassSamples() { return prepassSamples.takeAverage(); }
+
+    // A ring of GL_SAMPLES_PASSED queries, read back a few frames late so it never stalls.
+    private static final class SampleCounter {
+        private static final int QUERY_FRAMES = 3;
+        private int[] queries;
+        private final boolean[] issued = new boolean[QUERY_FRAMES];
+        private int frame;
+        private long total;
+        private int frames;
+
+        // Collects the query issued QUERY_FRAMES ago from this slot, then restarts it.
+        void begin() {
+            if (queries == null) {
+                queries = new int[QUERY_FRAMES];
+                glGenQueries(queries);
+            }
+            int slot = frame++ % QUERY_FRAMES;
+            int query = queries[slot];
+            if (issued[slot] && glGetQueryObjecti(query, GL_QUERY_RESULT_AVAILABLE) != 0) {
+                total += Integer.toUnsignedLong(glGetQueryObjecti(query, GL_QUERY_RESULT));
+                frames++;
+            }
+            glBeginQuery(GL_SAMPLES_PASSED, query);
+            issued[slot] = true;
+        }
+
+        void end() { glEndQuery(GL_SAMPLES_PASSED); }
+
+        long takeAverage() {
+            long avg = frames > 0 ? total / frames : 0;
+            total = 0;
+            frames = 0;
+            return avg;
+        }
+    }
+
+    // Stable bottom-up merge sort by unsigned key. Arrays.sort would allocate its
+    // work array every frame; this reuses one.
+    private void sortItems() {
+        if (sortScratch.length < size) sortScratch = new Item[items.length];
+        Item[] src = items, dst = sortScratch;
+        for (int width = 1; width < size; width *= 2) {
+            for (int lo = 0; lo < size; lo += 2 * width) {
+                int mid = Math.min(lo + width, size), hi = Math.min(lo + 2 * width, size);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) dst[k++] = Long.compareUnsigned(src[j].key, src[i].key) < 0 ? src[j++] : src[i++];
+                while (i < mid) dst[k++] = src[i++];
+                while (j < hi)  dst[k++] = src[j++];
+            }
+            Item[] t = src; src = dst; dst = t;
+        }
+        if (src != items) System.arraycopy(src, 0, items, 0, size);
+    }
+
+    private void applyState(int want) {
+        if (want == curState) return;
+        GLState.set(GL_DEPTH_TEST, (want & STATE_DEPTH_TEST) != 0);
+        GLState.depthMask((want & STATE_DEPTH_WRITE) != 0);
+        GLState.set(GL_BLEND, (want & STATE_BLEND) != 0);
+        GLState.set(GL_CULL_FACE, (want & STATE_CULL) != 0);
+        GLState.colorMask((want & STATE_NO_COLOR) == 0);
+        GLState.depthFunc((want & STATE_DEPTH_LEQUAL) != 0 ? GL_LEQUAL : GL_LESS);
+        curState = want;
+        stateSwitches++;
+    }
+
+    // Counters from the last flush.
+    public int getProgramSwitches() { return programSwitches; }
+    public int getTextureSwitches() { return textureSwitches; }
+    public int getStateSwitches()   { return stateSwitches; }
+    public int getItemsDrawn()      { return itemsDrawn; }
+
+    @Override
+    public String toString() {
+        return itemsDrawn + " items, " + programSwitches + " program / " + textureSwitches + " texture / "
+                + stateSwitches + " state switches";
+    }
+}
@@ -0,0 +1,21 @@
+package game.graphics;
+
+/** Per-frame counts of culled and submitted world objects, reset at the start of each {@link Renderer#render}. */
+public final class RenderStats {
+    public int chunksSubmitted;
+    public int chunksCulled;
+    public int chunksOccluded;   // rejected by the PVS before the frustum test
+    public int spritesSubmitted;
+    public int spritesCulled;
+
+    void reset() {
+        chunksSubmitted = chunksCulled = chunksOccluded = 0;
+        spritesSubmitted = spritesCulled = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "chunks " + chunksSubmitted + " drawn / " + chunksCulled + " culled / " + chunksOccluded + " occluded, "
+                + "sprites " + spritesSubmitted + " drawn / " + spritesCulled + " culled";
+    }
+}
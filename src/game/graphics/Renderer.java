@@ -4,25 +4,20 @@ import game.config.GameConfig;
 import game.map.MapData;
 import game.map.Tile;
 import game.map.TileDefinition;
-import game.world.Player;
+import game.world.WorldSnapshot;
+import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
-import org.lwjgl.BufferUtils;
 
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
-import java.awt.RenderingHints;
-import java.util.Map;
 
-import game.world.enemy.EnemyManager;
 import game.graphics.EnemySpriteRenderer;
 import game.graphics.SpriteDefsLoader;
 
@@ -30,185 +25,220 @@ public class Renderer {
     private MapData mapData;
 
     private final float tileSize = GameConfig.TILE_SIZE;
-    private final float roomHalfSize = GameConfig.ROOM_HALF_SIZE;
-    private final float roomHeight = GameConfig.ROOM_HEIGHT;
 
-    private final Map<String,TexturedCubeRenderer> cubeRenderers = new HashMap<>();
-    private final Map<String,TexturedQuadRenderer> quadRenderers = new HashMap<>();
+    // Every tile texture of the level lives in one texture array behind one program.
+    private WorldTileRenderer tileRenderer;
+
+    // The whole floor plane as one quad over a tile-id texture.
+    private TileMapFloor floor;
+
+    // Walls split into CHUNK_SIZE x CHUNK_SIZE tile chunks, row-major.
+    private final int chunkSize = GameConfig.CHUNK_SIZE;
+    private int chunkRows, chunkCols;
+    private WorldChunk[] chunks;
+    private String defaultFloorTex;
+
+    private static final float FAR_PLANE = 100f;
+
+    // Cell-level visibility; chunkInPvs is refreshed when the player changes cell or a door toggles.
+    // Built on an asset worker; until it lands every chunk counts as potentially visible.
+    private PotentiallyVisibleSet pvs;
+    private volatile PotentiallyVisibleSet builtPvs;
+    private boolean[] chunkInPvs;
+    private int pvsRow = -1, pvsCol = -1;
+    private boolean pvsStale = true;
+
+    private final Matrix4f projection = new Matrix4f()
+            .perspective((float) Math.toRadians(60), 800f / 600f, 0.1f, FAR_PLANE);
+    private final Matrix4f view = new Matrix4f();
+    private final Matrix4f projView = new Matrix4f();
+    private CameraUniforms camera;
+    private final FrustumIntersection frustum = new FrustumIntersection();
+    private final RenderStats stats = new RenderStats();
 
-    private final Map<String,List<float[]>> cubeInstances = new HashMap<>();
-    private final Map<String,List<float[]>> quadInstances = new HashMap<>();
-    private final Map<String, TexturedQuadRenderer> floorRenderers = new HashMap<>();
-    private final Map<String, List<float[]>> floorInstances = new HashMap<>();
     private EnemySpriteRenderer enemySprites;
-    private EnemyManager enemyManager;
 
     public Renderer(MapData mapData) throws Exception {
         this.mapData = mapData;
 
-        generateFloorGeometry();
-
-        for (String tex : cubeInstances.keySet()) {
-            cubeRenderers.put(tex, new TexturedCubeRenderer(tileSize, roomHeight, tex));
+        Tile[][] tiles = mapData.getTiles();
+        defaultFloorTex = findDefaultFloorTexture(tiles);
+        tileRenderer = new WorldTileRenderer(collectTileTextures(tiles), tileSize);
+        camera = new CameraUniforms();
+
+        chunkRows = (tiles.length + chunkSize - 1) / chunkSize;
+        chunkCols = (tiles[0].length + chunkSize - 1) / chunkSize;
+        chunks = new WorldChunk[chunkRows * chunkCols];
+        for (int cr = 0; cr < chunkRows; cr++) {
+            for (int cc = 0; cc < chunkCols; cc++) {
+                int r0 = cr * chunkSize, c0 = cc * chunkSize;
+                chunks[cr * chunkCols + cc] = new WorldChunk(r0, c0,
+                        Math.min(r0 + chunkSize, tiles.length),
+                        Math.min(c0 + chunkSize, tiles[0].length));
+            }
         }
 
-        for (String tex : quadInstances.keySet()) {
-            quadRenderers.put(tex, new TexturedQuadRenderer(tex, tileSize, tileSize));
-        }
+        int pvsRadius = (int) Math.ceil(FAR_PLANE / tileSize);
+        TextureStreamer.get().execute(() -> builtPvs = PotentiallyVisibleSet.build(tiles, pvsRadius));
+        chunkInPvs = new boolean[chunks.length];
 
-        for (String tex : floorInstances.keySet()) {
-            floorRenderers.put(tex, new TexturedQuadRenderer(tex, tileSize, tileSize));
-        }
+        floor = buildFloor();
+        rebuildDirtyChunks();
     }
-    private void generateFloorGeometry() {
-        cubeInstances.clear();
-        quadInstances.clear();
-        floorInstances.clear();
-
-        Tile[][] tiles = mapData.getTiles();
-        int rows = tiles.length;
-        int cols = tiles[0].length;
 
-        String defaultFloorTex = null;
-        for (int r = 0; r < rows && defaultFloorTex == null; r++) {
-            for (int c = 0; c < cols && defaultFloorTex == null; c++) {
-                TileDefinition def = tiles[r][c].getDefinition();
+    private static String findDefaultFloorTexture(Tile[][] tiles) {
+        for (Tile[] row : tiles) {
+            for (Tile t : row) {
+                TileDefinition def = t.getDefinition();
                 if ("floor".equals(def.getRenderer())
                         && def.getTexture() != null
                         && !def.getTexture().isEmpty()) {
-                    defaultFloorTex = def.getTexture();
+                    return def.getTexture();
                 }
             }
         }
+        return null;
+    }
 
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                Tile t = tiles[row][col];
-                float centerX = col * tileSize + roomHalfSize;
-                float centerZ = row * tileSize + roomHalfSize;
-
+    // Textures any tile of this map can show. Open doors borrow a neighbour's floor
+    // texture (or the default floor), which is already in the set.
+    private static List<String> collectTileTextures(Tile[][] tiles) {
+        Set<String> paths = new LinkedHashSet<>();
+        for (Tile[] row : tiles) {
+            for (Tile t : row) {
                 TileDefinition def = t.getDefinition();
-                String rendererType = def.getRenderer();  // "floor", "cube", or "quad"
-                String texPath      = def.getTexture();
-
-                boolean isOpenDoor = t.isOpenable() && t.isOpen();
-
-                if ("floor".equals(rendererType) || isOpenDoor) {
-                    String floorTex = texPath;
-
-                    if (isOpenDoor) {
-                        floorTex = resolveDoorFloorTexture(row, col, tiles, defaultFloorTex);
-                    }
-
-                    if (floorTex == null || floorTex.isEmpty()) {
-                        floorTex = defaultFloorTex;
-                    }
-                    if (floorTex == null) {
-                        continue;
-                    }
-
-                    floorInstances
-                            .computeIfAbsent(floorTex, k -> new ArrayList<>())
-                            .add(new float[]{ centerX, centerZ });
-
-                } else if ("cube".equals(rendererType)) {
-                    cubeInstances
-                            .computeIfAbsent(texPath, k -> new ArrayList<>())
-                            .add(new float[]{ centerX, centerZ });
-
-                } else if ("quad".equals(rendererType)) {
-                    quadInstances
-                            .computeIfAbsent(texPath, k -> new ArrayList<>())
-                            .add(new float[]{ centerX, centerZ });
+                String renderer = def.getRenderer();
+                boolean drawn = "floor".equals(renderer) || "cube".equals(renderer) || "quad".equals(renderer);
+                if (drawn && def.getTexture() != null && !def.getTexture().isEmpty()) {
+                    paths.add(def.getTexture());
                 }
             }
         }
+        return new ArrayList<>(paths);
     }
 
-
-
-    private void addFloor(List<Float> list, float centerX, float centerZ) {
-        addQuad(list,
-                centerX - roomHalfSize, 0f, centerZ - roomHalfSize,
-                centerX + roomHalfSize, 0f, centerZ - roomHalfSize,
-                centerX + roomHalfSize, 0f, centerZ + roomHalfSize,
-                centerX - roomHalfSize, 0f, centerZ + roomHalfSize,
-                0.5f, 0f, 0f);  // Dark red floor color.
+    private void rebuildDirtyChunks() throws Exception {
+        for (WorldChunk chunk : chunks) {
+            if (chunk.dirty) {
+                generateChunkGeometry(chunk);
+                chunk.dirty = false;
+            }
+        }
     }
 
-    private void addQuad(List<Float> list,
-                         float x1, float y1, float z1,
-                         float x2, float y2, float z2,
-                         float x3, float y3, float z3,
-                         float x4, float y4, float z4,
-                         float r, float g, float b) {
-        addVertex(list, x1, y1, z1, r, g, b);
-        addVertex(list, x2, y2, z2, r, g, b);
-        addVertex(list, x3, y3, z3, r, g, b);
-        addVertex(list, x1, y1, z1, r, g, b);
-        addVertex(list, x3, y3, z3, r, g, b);
-        addVertex(list, x4, y4, z4, r, g, b);
+    private void generateChunkGeometry(WorldChunk chunk) throws Exception {
+        // Walls: only exposed faces, merged into runs (see WallMesher).
+        if (chunk.wallMesh == null) chunk.wallMesh = new WallMesh();
+        chunk.wallMesh.upload(WallMesher.build(mapData.getTiles(), chunk.row0, chunk.col0, chunk.row1, chunk.col1,
+                tileRenderer::layerOf));
     }
 
-    private void addVertex(List<Float> list, float x, float y, float z,
-                           float r, float g, float b) {
-        list.add(x);
-        list.add(y);
-        list.add(z);
-        list.add(r);
-        list.add(g);
-        list.add(b);
+    private TileMapFloor buildFloor() {
+        Tile[][] tiles = mapData.getTiles();
+        int rows = tiles.length, cols = tiles[0].length;
+        int[] layers = new int[rows * cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                layers[row * cols + col] = floorLayer(tiles, row, col);
+            }
+        }
+        return tileRenderer.createFloor(layers, rows, cols);
     }
 
-    public void render(Player player) {
-        glEnable(GL_DEPTH_TEST);
-        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
-        glDisable(GL_CULL_FACE);
-
-        Matrix4f projection = new Matrix4f()
-                .perspective((float) Math.toRadians(60), 800f / 600f, 0.1f, 100f);
-
-        Matrix4f view = new Matrix4f().identity()
-                .rotateY((float) Math.toRadians(player.getYaw()))
-                .translate(-player.getX(), -player.getY(), -player.getZ());
+    // Layer drawn on the floor plane at (row, col): floors, quads and open doors; -1 for none.
+    private int floorLayer(Tile[][] tiles, int row, int col) {
+        Tile t = tiles[row][col];
+        TileDefinition def = t.getDefinition();
+        String rendererType = def.getRenderer();  // "floor", "cube", or "quad"
+        String texPath      = def.getTexture();
 
-        for (var entry : floorInstances.entrySet()) {
-            String tex = entry.getKey();
-            TexturedQuadRenderer rend = floorRenderers.get(tex);
-            if (rend == null) continue;
+        boolean isOpenDoor = t.isOpenable() && t.isOpen();
 
-            for (float[] center : entry.getValue()) {
-                Matrix4f model = new Matrix4f().translation(center[0], 0f, center[1]);
-                rend.render(projection, view, model);
+        if ("floor".equals(rendererType) || isOpenDoor) {
+            if (isOpenDoor) {
+                texPath = resolveDoorFloorTexture(row, col, tiles, defaultFloorTex);
             }
+            if (texPath == null || texPath.isEmpty()) {
+                texPath = defaultFloorTex;
+            }
+            if (texPath == null) {
+                return -1;
+            }
+        } else if (!"quad".equals(rendererType)) {
+            return -1;
         }
+        return tileRenderer.layerOf(texPath);
+    }
 
-        for (var entry : cubeInstances.entrySet()) {
-            String tex = entry.getKey();
-            TexturedCubeRenderer rend = cubeRenderers.get(tex);
-            if (rend == null) continue;
+    /**
+     * Submits the world and sprites to the RenderQueue; Game flushes it once per frame.
+     * Moving things are drawn {@code alpha} of the way from the snapshot's previous
+     * simulation step to its newest one.
+     */
+    public void render(WorldSnapshot world, float alpha) {
+        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
 
-            for (float[] center : entry.getValue()) {
-                Matrix4f cubeModel = new Matrix4f().translation(center[0], 0f, center[1]);
-                rend.render(projection, view, cubeModel);
-            }
+        float camX = world.getPlayerX(alpha), camY = world.getPlayerY(), camZ = world.getPlayerZ(alpha);
+        float camYaw = world.getPlayerYaw(alpha);
+        view.identity()
+                .rotateY((float) Math.toRadians(camYaw))
+                .translate(-camX, -camY, -camZ);
+        // Filled once; every world program reads it from the Camera block.
+        camera.update(projection, view, camX, camY, camZ, (float) Math.toRadians(camYaw));
+
+        try {
+            rebuildDirtyChunks();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to rebuild world chunks: " + e.getMessage(), e);
         }
 
-        for (var entry : quadInstances.entrySet()) {
-            String tex = entry.getKey();
-            TexturedQuadRenderer rend = quadRenderers.get(tex);
-            if (rend == null) continue;
-
-            for (float[] center : entry.getValue()) {
-                Matrix4f quadModel = new Matrix4f().translation(center[0], 0f, center[1]);
-                rend.render(projection, view, quadModel);
+        // Cull whole chunks against the PVS of the player's cell, then the view frustum.
+        stats.reset();
+        int playerRow = (int) (camZ / tileSize);
+        int playerCol = (int) (camX / tileSize);
+        if (pvs == null && builtPvs != null) {
+            pvs = builtPvs;
+            pvsStale = true;
+        }
+        if (pvsStale || playerRow != pvsRow || playerCol != pvsCol) {
+            if (pvs == null || !pvs.markVisibleChunks(playerRow, playerCol, chunkSize, chunkCols, chunkInPvs)) {
+                Arrays.fill(chunkInPvs, true);
+            }
+            pvsRow = playerRow;
+            pvsCol = playerCol;
+            pvsStale = false;
+        }
+        frustum.set(projection.mul(view, projView));
+        for (int i = 0; i < chunks.length; i++) {
+            WorldChunk chunk = chunks[i];
+            if (!chunkInPvs[i]) {
+                chunk.visible = false;
+                stats.chunksOccluded++;
+                continue;
             }
+            chunk.visible = frustum.testAab(chunk.minX, 0f, chunk.minZ, chunk.maxX, chunk.maxY, chunk.maxZ);
+            if (chunk.visible) stats.chunksSubmitted++; else stats.chunksCulled++;
         }
 
-        if (enemySprites != null && enemyManager != null) {
-            enemySprites.render(enemyManager, player, projection, view);
+        // One draw for the floor whatever the map size, then one per visible wall chunk, nearest first.
+        tileRenderer.submit(floor);
+        for (WorldChunk chunk : chunks) {
+            if (!chunk.visible) continue;
+            tileRenderer.submit(chunk.wallMesh, distanceToChunk(chunk, camX, camZ));
+        }
+
+        if (enemySprites != null) {
+            enemySprites.render(world, camX, camZ, camYaw, alpha, frustum, pvs, stats);
         }
     }
+
+    // Horizontal distance from (x, z) to the chunk's bounds; 0 when inside.
+    private static float distanceToChunk(WorldChunk chunk, float x, float z) {
+        float dx = Math.max(0f, Math.max(chunk.minX - x, x - chunk.maxX));
+        float dz = Math.max(0f, Math.max(chunk.minZ - z, z - chunk.maxZ));
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+
     private String resolveDoorFloorTexture(int row, int col,
                                            Tile[][] tiles,
                                            String defaultFloorTex) {
@@ -238,8 +268,32 @@ public class Renderer {
         return defaultFloorTex;
     }
 
+    // Flags the chunk holding (row, col) for re-meshing, plus any neighbour chunk
+    // the tile borders, since wall faces depend on 4-neighbours. The floor only
+    // needs the one texel.
+    public void markTileDirty(int row, int col) {
+        floor.setTile(row, col, floorLayer(mapData.getTiles(), row, col));
+        int cr = row / chunkSize, cc = col / chunkSize;
+        markChunkDirty(cr, cc);
+        if (row % chunkSize == 0)             markChunkDirty(cr - 1, cc);
+        if (row % chunkSize == chunkSize - 1) markChunkDirty(cr + 1, cc);
+        if (col % chunkSize == 0)             markChunkDirty(cr, cc - 1);
+        if (col % chunkSize == chunkSize - 1) markChunkDirty(cr, cc + 1);
+    }
+
+    private void markChunkDirty(int cr, int cc) {
+        if (cr < 0 || cr >= chunkRows || cc < 0 || cc >= chunkCols) return;
+        chunks[cr * chunkCols + cc].dirty = true;
+        // Door state may have changed, which re-gates the PVS portals.
+        if (pvs != null) pvs.invalidatePortals();
+        pvsStale = true;
+    }
+
+    // Full rebuild; prefer markTileDirty for single-tile changes.
     public void updateFloorGeometry() {
-        generateFloorGeometry();
+        floor.cleanup();
+        floor = buildFloor();
+        for (WorldChunk chunk : chunks) chunk.dirty = true;
     }
 
     public void initEnemySpritesForMap(String mapJsonPath) {
@@ -251,37 +305,30 @@ public class Renderer {
         this.enemySprites = new EnemySpriteRenderer(defs);
     }
 
-    public void setEnemyManager(EnemyManager mgr) {
-        this.enemyManager = mgr;
-    }
+    public RenderStats getStats() { return stats; }
 
     public void cleanup() {
-        // floors
-        for (TexturedQuadRenderer r : floorRenderers.values()) {
-            r.cleanup();
+        for (WorldChunk chunk : chunks) {
+            chunk.cleanup();
         }
-        floorRenderers.clear();
-        floorInstances.clear();
-
-        // cubes
-        for (TexturedCubeRenderer r : cubeRenderers.values()) {
-            r.cleanup();
+        if (floor != null) {
+            floor.cleanup();
+            floor = null;
         }
-        cubeRenderers.clear();
-        cubeInstances.clear();
 
-        // other quads
-        for (TexturedQuadRenderer r : quadRenderers.values()) {
-            r.cleanup();
+        if (tileRenderer != null) {
+            tileRenderer.cleanup();
+            tileRenderer = null;
+        }
+        if (camera != null) {
+            camera.cleanup();
+            camera = null;
         }
-        quadRenderers.clear();
-        quadInstances.clear();
 
         if (enemySprites != null) {
             enemySprites.cleanup();
             enemySprites = null;
         }
-        enemyManager = null;
     }
 
-}
+}
\ No newline at end of file
@@ -1,35 +1,72 @@
 package game.graphics;
 
+import org.lwjgl.BufferUtils;
+
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+import static org.lwjgl.opengl.GL41.*;
 
-public class ShaderProgram {
+public class ShaderProgram implements GpuResourceCache.Resource {
     private int programId;
-    private int vertexShaderId;
-    private int fragmentShaderId;
+    // Active uniform locations, resolved once after linking.
+    private final Map<String, Integer> uniforms = new HashMap<>();
+    // Cache key when shared through ShaderRegistry; cleared once disposed so a late release is a no-op.
+    String registryKey;
 
     public ShaderProgram(String vertexSource, String fragmentSource) throws Exception {
         programId = glCreateProgram();
         if (programId == 0) {
             throw new Exception("Could not create Shader");
         }
-        vertexShaderId = createShader(vertexSource, GL_VERTEX_SHADER);
-        fragmentShaderId = createShader(fragmentSource, GL_FRAGMENT_SHADER);
+        // A cached binary skips compiling and linking; anything the driver won't take is rebuilt.
+        String binaryKey = ProgramBinaryCache.isSupported() ? ProgramBinaryCache.key(vertexSource, fragmentSource) : null;
+        if (binaryKey == null || !ProgramBinaryCache.load(programId, binaryKey)) {
+            linkFromSource(vertexSource, fragmentSource, binaryKey != null);
+            if (binaryKey != null) ProgramBinaryCache.store(programId, binaryKey);
+        }
+        glValidateProgram(programId);
+        if (glGetProgrami(programId, GL_VALIDATE_STATUS) == 0) {
+            System.err.println("Warning validating Shader code: " + glGetProgramInfoLog(programId, 1024));
+        }
+        cacheUniformLocations();
+
+        // Programs that read the shared camera block get it from its fixed binding point.
+        int cameraBlock = glGetUniformBlockIndex(programId, CameraUniforms.BLOCK_NAME);
+        if (cameraBlock != GL_INVALID_INDEX) {
+            glUniformBlockBinding(programId, cameraBlock, CameraUniforms.BINDING);
+        }
+    }
+
+    private void linkFromSource(String vertexSource, String fragmentSource, boolean retrievable) throws Exception {
+        int vertexShaderId = createShader(vertexSource, GL_VERTEX_SHADER);
+        int fragmentShaderId = createShader(fragmentSource, GL_FRAGMENT_SHADER);
         glAttachShader(programId, vertexShaderId);
         glAttachShader(programId, fragmentShaderId);
+        if (retrievable) glProgramParameteri(programId, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
         glLinkProgram(programId);
+        // The linked program keeps its own copy of the code.
+        glDetachShader(programId, vertexShaderId);
+        glDetachShader(programId, fragmentShaderId);
+        glDeleteShader(vertexShaderId);
+        glDeleteShader(fragmentShaderId);
         if (glGetProgrami(programId, GL_LINK_STATUS) == 0) {
             throw new Exception("Error linking Shader code: " + glGetProgramInfoLog(programId, 1024));
         }
-        if (vertexShaderId != 0) {
-            glDetachShader(programId, vertexShaderId);
-        }
-        if (fragmentShaderId != 0) {
-            glDetachShader(programId, fragmentShaderId);
-        }
-        glValidateProgram(programId);
-        if (glGetProgrami(programId, GL_VALIDATE_STATUS) == 0) {
-            System.err.println("Warning validating Shader code: " + glGetProgramInfoLog(programId, 1024));
+    }
+
+    private void cacheUniformLocations() {
+        IntBuffer size = BufferUtils.createIntBuffer(1);
+        IntBuffer type = BufferUtils.createIntBuffer(1);
+        int count = glGetProgrami(programId, GL_ACTIVE_UNIFORMS);
+        for (int i = 0; i < count; i++) {
+            String name = glGetActiveUniform(programId, i, size, type);
+            if (name.endsWith("[0]")) name = name.substring(0, name.length() - 3);
+            uniforms.put(name, glGetUniformLocation(programId, name));
         }
     }
 
@@ -46,22 +83,33 @@ public class ShaderProgram {
         return shaderId;
     }
 
+    public int getId() { return programId; }
+
     public void use() {
-        glUseProgram(programId);
+        GLState.useProgram(programId);
     }
 
     public void stop() {
-        glUseProgram(0);
+        GLState.useProgram(0);
     }
 
+    // Cached at link time; -1 for names the linker dropped or that don't exist.
     public int getUniformLocation(String name) {
-        return glGetUniformLocation(programId, name);
+        Integer location = uniforms.get(name);
+        return location != null ? location : -1;
     }
 
     public void cleanup() {
         stop();
         if (programId != 0) {
-            glDeleteProgram(programId);
+            GLState.deleteProgram(programId);
+            programId = 0;
         }
+        registryKey = null;
     }
+
+    // Drivers don't report program sizes; a linked program is a few KB of code.
+    @Override public long getGpuBytes() { return 16 * 1024; }
+
+    @Override public void dispose() { cleanup(); }
 }
@@ -0,0 +1,32 @@
+package game.graphics;
+
+/**
+ * Compiles each unique (vertex, fragment) source pair once and hands the same
+ * {@link ShaderProgram} to every renderer that asks for it. Programs are
+ * reference counted through the {@link GpuResourceCache}, so a released program
+ * stays linked for the next level until the cache needs the room.
+ */
+public final class ShaderRegistry {
+    private static int compileCount;
+
+    private ShaderRegistry() {}
+
+    public static ShaderProgram acquire(String vertexSource, String fragmentSource) throws Exception {
+        String key = "program:" + vertexSource + '\0' + fragmentSource;
+        return GpuResourceCache.get().acquire(key, () -> {
+            compileCount++;
+            ShaderProgram program = new ShaderProgram(vertexSource, fragmentSource);
+            program.registryKey = key;
+            return program;
+        });
+    }
+
+    // The key lives on the program, so nothing here outlives an evicted one.
+    public static void release(ShaderProgram program) {
+        String key = program.registryKey;
+        if (key != null) GpuResourceCache.get().release(key);
+    }
+
+    /** Programs compiled since startup; a level load should add at most one or two. */
+    public static int getCompileCount() { return compileCount; }
+}
@@ -82,6 +82,11 @@ public final class SpriteDefsLoader {
         return d;
     }
 
+    /** Every enemy type with a definition, lower-cased. */
+    public java.util.Set<String> types() {
+        return byType.keySet();
+    }
+
     private static void putAll(Map<String, SpriteDef> out, JSONObject root) {
         for (String key : root.keySet()) {
             JSONObject def = root.getJSONObject(key);
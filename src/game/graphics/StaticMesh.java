@@ -0,0 +1,27 @@
+package game.graphics;
+
+import static org.lwjgl.opengl.GL15.*;
+
+/** Immutable vertex buffer shared through the {@link GpuResourceCache}, e.g. a unit quad. */
+public final class StaticMesh implements GpuResourceCache.Resource {
+    private final int vboId;
+    private final int vertexCount;
+    private final long bytes;
+
+    public StaticMesh(float[] vertices, int floatsPerVertex) {
+        vboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, vertices, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        vertexCount = vertices.length / floatsPerVertex;
+        bytes = (long) vertices.length * Float.BYTES;
+    }
+
+    public int getVboId() { return vboId; }
+
+    public int getVertexCount() { return vertexCount; }
+
+    @Override public long getGpuBytes() { return bytes; }
+
+    @Override public void dispose() { glDeleteBuffers(vboId); }
+}
@@ -0,0 +1,186 @@
+package game.graphics;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * A pool of fixed-size layers in one GL_TEXTURE_2D_ARRAY, one layer per path.
+ * Images of another size are resampled on the decode worker. A layer starts as a
+ * placeholder colour and is replaced once {@link TextureStreamer} finishes loading it.
+ * <p>
+ * Layers are reference counted: an acquired layer keeps its index until released,
+ * and a released layer keeps its pixels until the pool runs out of free layers and
+ * reuses the least recently used one. Kept in the {@link GpuResourceCache}, a pool
+ * outlives the level that filled it, so the next level only uploads what's new.
+ */
+public class TextureArray implements GpuResourceCache.Resource {
+    private int textureId;
+    private final int width, height;
+    private final int mipLevels;
+    private final int placeholderRGBA;
+    private int capacity;
+    private final Map<String, Integer> layers = new HashMap<>();
+    private String[] layerPath;
+    private int[] refs;
+    private long[] lastUse;
+    private int[] generation;   // bumped on reassignment, so stale uploads are dropped
+    private int used;           // layers handed out at least once
+    private long useClock;
+    private int pendingLayers, uploads, reuses;
+    private boolean deleted;
+
+    /** {@code placeholderRGBA} is 0xRRGGBBAA, shown in every layer until its upload lands. */
+    public TextureArray(int width, int height, int capacity, int placeholderRGBA) {
+        this.width = width;
+        this.height = height;
+        this.placeholderRGBA = placeholderRGBA;
+        mipLevels = 1 + 31 - Integer.numberOfLeadingZeros(Math.max(width, height));
+        this.capacity = Math.max(1, capacity);
+        layerPath = new String[this.capacity];
+        refs = new int[this.capacity];
+        lastUse = new long[this.capacity];
+        generation = new int[this.capacity];
+        allocate();
+    }
+
+    // (Re)creates storage for `capacity` layers, all placeholder.
+    private void allocate() {
+        // Every mip level starts as the placeholder; the level-0 fill is big enough for all of them.
+        ByteBuffer fill = placeholder(capacity);
+        textureId = glGenTextures();
+        GLState.bindTexture(GL_TEXTURE_2D_ARRAY, textureId);
+        for (int l = 0; l < mipLevels; l++) {
+            glTexImage3D(GL_TEXTURE_2D_ARRAY, l, GL_RGBA8, Math.max(1, width >> l), Math.max(1, height >> l), capacity,
+                    0, GL_RGBA, GL_UNSIGNED_BYTE, fill);
+        }
+        MemoryUtil.memFree(fill);
+        TextureLoader.setMipFilters(GL_TEXTURE_2D_ARRAY, mipLevels);
+        // Merged wall runs use U in 0..n, so layers must repeat.
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_REPEAT);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_REPEAT);
+    }
+
+    private ByteBuffer placeholder(int depth) {
+        ByteBuffer fill = MemoryUtil.memAlloc(width * height * depth * 4);
+        for (int i = 0; i < fill.capacity(); i += 4) TextureLoader.putRGBA(fill, i, placeholderRGBA);
+        return fill;
+    }
+
+    /** Layer holding {@code path}, streaming it in if it isn't resident. Pair with {@link #release}. */
+    public int acquire(String path) {
+        Integer resident = layers.get(path);
+        if (resident != null) {
+            refs[resident]++;
+            lastUse[resident] = ++useClock;
+            return resident;
+        }
+        int layer = freeLayer();
+        layers.put(path, layer);
+        layerPath[layer] = path;
+        refs[layer] = 1;
+        lastUse[layer] = ++useClock;
+        request(layer, path);
+        return layer;
+    }
+
+    public void release(String path) {
+        Integer layer = layers.get(path);
+        if (layer == null || refs[layer] == 0) return;
+        refs[layer]--;
+        lastUse[layer] = ++useClock;
+    }
+
+    private int freeLayer() {
+        if (used < capacity) return used++;
+        int lru = -1;
+        for (int i = 0; i < capacity; i++) {
+            if (refs[i] == 0 && (lru < 0 || lastUse[i] < lastUse[lru])) lru = i;
+        }
+        if (lru >= 0) {
+            layers.remove(layerPath[lru]);
+            reuses++;
+            // Show the placeholder rather than the old image while the new one loads.
+            ByteBuffer fill = placeholder(1);
+            GLState.bindTexture(GL_TEXTURE_2D_ARRAY, textureId);
+            for (int l = 0; l < mipLevels; l++) {
+                glTexSubImage3D(GL_TEXTURE_2D_ARRAY, l, 0, 0, lru, Math.max(1, width >> l), Math.max(1, height >> l), 1,
+                        GL_RGBA, GL_UNSIGNED_BYTE, fill);
+            }
+            MemoryUtil.memFree(fill);
+            return lru;
+        }
+        grow();
+        return used++;
+    }
+
+    // Every layer is referenced: double the storage and reload what was resident
+    // (from the disk cache, so this is cheap). Layer indices don't change.
+    private void grow() {
+        GLState.deleteTexture(textureId);
+        capacity *= 2;
+        layerPath = Arrays.copyOf(layerPath, capacity);
+        refs = Arrays.copyOf(refs, capacity);
+        lastUse = Arrays.copyOf(lastUse, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        allocate();
+        for (int i = 0; i < used; i++) {
+            if (layerPath[i] != null) request(i, layerPath[i]);
+        }
+    }
+
+    private void request(int layer, String path) {
+        int gen = ++generation[layer];
+        pendingLayers++;
+        TextureStreamer.get().request(path, width, height, image -> uploadLayer(layer, gen, image));
+    }
+
+    // GL thread, from TextureStreamer.drainUploads.
+    private void uploadLayer(int layer, int gen, TextureLoader.Image image) {
+        pendingLayers--;
+        if (deleted || image == null || generation[layer] != gen) return;
+        GLState.bindTexture(GL_TEXTURE_2D_ARRAY, textureId);
+        for (int l = 0; l < mipLevels && l < image.levels.length; l++) {
+            glTexSubImage3D(GL_TEXTURE_2D_ARRAY, l, 0, 0, layer, image.levelWidth(l), image.levelHeight(l), 1,
+                    GL_RGBA, GL_UNSIGNED_BYTE, image.levels[l]);
+        }
+        uploads++;
+    }
+
+    public int getId() { return textureId; }
+
+    /** Layer index of a resident path, or -1 if it isn't in the array. */
+    public int layerOf(String path) {
+        Integer layer = layers.get(path);
+        return layer != null ? layer : -1;
+    }
+
+    public int getLayerCount() { return layers.size(); }
+
+    /** True once every requested layer has been uploaded (failed decodes keep their placeholder). */
+    public boolean isLoaded() { return pendingLayers == 0; }
+
+    /** Layers uploaded since creation; a level reusing resident layers adds nothing here. */
+    public int getUploadCount() { return uploads; }
+
+    public int getReuseCount() { return reuses; }
+
+    @Override
+    public long getGpuBytes() {
+        // The full mip chain adds a third on top of level 0.
+        return (long) width * height * 4 * capacity * 4 / 3;
+    }
+
+    @Override
+    public void dispose() {
+        deleted = true;
+        GLState.deleteTexture(textureId);
+    }
+}
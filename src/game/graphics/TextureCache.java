@@ -0,0 +1,108 @@
+package game.graphics;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * On-disk cache of GPU-ready textures. Entries are keyed by a hash of the source
+ * file's bytes plus the requested size, and hold raw RGBA8 for every mip level:
+ *
+ *   int magic 'DLTX', int version, int width, int height, int levels,
+ *   then level 0..levels-1 tightly packed (max(1, w >> l) * max(1, h >> l) * 4 bytes each)
+ *
+ * A miss decodes, resamples and builds the mip chain, then writes the entry; a hit
+ * memory-maps the file and hands out per-level views with no decode and no copy.
+ */
+final class TextureCache {
+    private static final int MAGIC = 0x444C5458;   // "DLTX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final Path DIR = Paths.get("texcache");
+
+    private TextureCache() {}
+
+    /** Decoded image with mips; {@code width}/{@code height} of 0 keep the source size. */
+    static TextureLoader.Image load(String path, int width, int height) throws Exception {
+        ByteBuffer file = TextureLoader.readAll(path);
+        try {
+            Path entry = DIR.resolve(hash(file) + "_" + width + "x" + height + ".tex");
+            TextureLoader.Image cached = map(entry);
+            if (cached != null) return cached;
+
+            TextureLoader.Image image = TextureLoader.decode(file, path);
+            if (width > 0 && height > 0 && (image.width != width || image.height != height)) {
+                TextureLoader.Image scaled = TextureLoader.resample(image, width, height);
+                image.free();
+                image = scaled;
+            }
+            image = TextureLoader.withMips(image);
+            write(entry, image);
+            return image;
+        } finally {
+            MemoryUtil.memFree(file);
+        }
+    }
+
+    private static TextureLoader.Image map(Path entry) {
+        if (!Files.isRegularFile(entry)) return null;
+        try (FileChannel ch = FileChannel.open(entry, StandardOpenOption.READ)) {
+            MappedByteBuffer data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            if (data.remaining() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) return null;
+            int width = data.getInt(8), height = data.getInt(12), count = data.getInt(16);
+
+            ByteBuffer[] levels = new ByteBuffer[count];
+            int offset = HEADER_BYTES;
+            for (int l = 0; l < count; l++) {
+                int bytes = Math.max(1, width >> l) * Math.max(1, height >> l) * 4;
+                if (offset + bytes > data.capacity()) return null;   // truncated; rebuild
+                levels[l] = data.slice(offset, bytes);
+                offset += bytes;
+            }
+            return new TextureLoader.Image(width, height, levels, TextureLoader.Image.MAPPED);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Written to a temp file and moved into place, so readers never see half an entry.
+    private static void write(Path entry, TextureLoader.Image image) {
+        try {
+            Files.createDirectories(DIR);
+            Path tmp = Files.createTempFile(DIR, "tex", ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(image.width).putInt(image.height)
+                        .putInt(image.levels.length).flip();
+                ch.write(header);
+                for (ByteBuffer level : image.levels) {
+                    ByteBuffer view = level.duplicate();
+                    view.clear();
+                    while (view.hasRemaining()) ch.write(view);
+                }
+            }
+            Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Texture cache write failed for " + entry + ": " + e.getMessage());
+        }
+    }
+
+    private static String hash(ByteBuffer file) throws Exception {
+        MessageDigest sha = MessageDigest.getInstance("SHA-1");
+        sha.update(file.duplicate());
+        StringBuilder sb = new StringBuilder(40);
+        for (byte b : sha.digest()) sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+}
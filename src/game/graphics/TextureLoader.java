@@ -1,44 +1,227 @@
 package game.graphics;
 
-import org.lwjgl.BufferUtils;
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL12.*;
+import static org.lwjgl.stb.STBImage.*;
 
+/**
+ * Decodes images with stb_image straight into native memory, uploads them and
+ * frees the pixels immediately; nothing is left for the GC and AWT is never loaded.
+ * Loads go through {@link TextureCache}, so every texture arrives with a full mip chain.
+ */
 public class TextureLoader {
     public static int loadTexture(String path) throws Exception {
-        InputStream in = TextureLoader.class.getResourceAsStream(path);
-        if(in == null) {
-            throw new Exception("Texture not found: " + path);
-        }
-        BufferedImage image = ImageIO.read(in);
-        int width = image.getWidth();
-        int height = image.getHeight();
-
-        int[] pixels = new int[width * height];
-        image.getRGB(0, 0, width, height, pixels, 0, width);
-        ByteBuffer buffer = BufferUtils.createByteBuffer(width * height * 4);
-        for(int y = 0; y < height; y++){
-            for(int x = 0; x < width; x++){
-                int pixel = pixels[y * width + x];
-                buffer.put((byte) ((pixel >> 16) & 0xFF)); // Red
-                buffer.put((byte) ((pixel >> 8) & 0xFF));  // Green
-                buffer.put((byte) (pixel & 0xFF));         // Blue
-                buffer.put((byte) ((pixel >> 24) & 0xFF));   // Alpha
+        Image image = TextureCache.load(path, 0, 0);
+        try {
+            int textureId = glGenTextures();
+            GLState.bindTexture(GL_TEXTURE_2D, textureId);
+            uploadLevels(image);
+            setMipFilters(GL_TEXTURE_2D, image.levels.length);
+            return textureId;
+        } finally {
+            image.free();
+        }
+    }
+
+    /** RGBA8 pixels in native memory, level 0 first; call {@link #free()} as soon as they're uploaded. */
+    public static final class Image {
+        static final int OWN_STB = 0;      // level 0 from stb, any others memAlloc'd
+        static final int OWN_MEMORY = 1;   // every level memAlloc'd
+        static final int MAPPED = 2;       // views of a mapped cache file; nothing to free
+
+        final int width, height;
+        final ByteBuffer[] levels;
+        private final int ownership;
+
+        Image(int width, int height, ByteBuffer[] levels, int ownership) {
+            this.width = width;
+            this.height = height;
+            this.levels = levels;
+            this.ownership = ownership;
+        }
+
+        ByteBuffer pixels() { return levels[0]; }
+
+        int levelWidth(int level)  { return Math.max(1, width >> level); }
+        int levelHeight(int level) { return Math.max(1, height >> level); }
+
+        void free() {
+            if (ownership == MAPPED) return;
+            for (int i = 0; i < levels.length; i++) {
+                if (i == 0 && ownership == OWN_STB) stbi_image_free(levels[0]);
+                else MemoryUtil.memFree(levels[i]);
+            }
+        }
+    }
+
+    static Image decode(ByteBuffer file, String path) throws Exception {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer comp = stack.mallocInt(1);
+            ByteBuffer pixels = stbi_load_from_memory(file, w, h, comp, 4);
+            if (pixels == null) {
+                throw new Exception("Failed to decode texture " + path + ": " + stbi_failure_reason());
+            }
+            return new Image(w.get(0), h.get(0), new ByteBuffer[] { pixels }, Image.OWN_STB);
+        }
+    }
+
+    // Nearest-neighbour copy of level 0 at width x height; the source is left untouched.
+    static Image resample(Image image, int width, int height) {
+        ByteBuffer src = image.pixels();
+        ByteBuffer out = MemoryUtil.memAlloc(width * height * 4);
+        for (int y = 0; y < height; y++) {
+            int srcRow = (y * image.height / height) * image.width;
+            for (int x = 0; x < width; x++) {
+                out.putInt((y * width + x) * 4, src.getInt((srcRow + x * image.width / width) * 4));
+            }
+        }
+        return new Image(width, height, new ByteBuffer[] { out }, Image.OWN_MEMORY);
+    }
+
+    /** Full mip chain down to 1x1 by 2x2 box filtering; takes ownership of {@code image}. */
+    static Image withMips(Image image) {
+        int count = 1 + 31 - Integer.numberOfLeadingZeros(Math.max(image.width, image.height));
+        ByteBuffer[] levels = new ByteBuffer[count];
+        levels[0] = image.pixels();
+        for (int l = 1; l < count; l++) {
+            int sw = image.levelWidth(l - 1), sh = image.levelHeight(l - 1);
+            int dw = image.levelWidth(l),     dh = image.levelHeight(l);
+            ByteBuffer src = levels[l - 1];
+            ByteBuffer dst = MemoryUtil.memAlloc(dw * dh * 4);
+            for (int y = 0; y < dh; y++) {
+                int y0 = Math.min(2 * y, sh - 1), y1 = Math.min(2 * y + 1, sh - 1);
+                for (int x = 0; x < dw; x++) {
+                    int x0 = Math.min(2 * x, sw - 1), x1 = Math.min(2 * x + 1, sw - 1);
+                    for (int c = 0; c < 4; c++) {
+                        int sum = (src.get((y0 * sw + x0) * 4 + c) & 0xFF) + (src.get((y0 * sw + x1) * 4 + c) & 0xFF)
+                                + (src.get((y1 * sw + x0) * 4 + c) & 0xFF) + (src.get((y1 * sw + x1) * 4 + c) & 0xFF);
+                        dst.put((y * dw + x) * 4 + c, (byte) ((sum + 2) >> 2));
+                    }
+                }
+            }
+            levels[l] = dst;
+        }
+        return new Image(image.width, image.height, levels, image.ownership);
+    }
+
+    // Uploads every level of the image into the bound GL_TEXTURE_2D.
+    private static void uploadLevels(Image image) {
+        for (int l = 0; l < image.levels.length; l++) {
+            glTexImage2D(GL_TEXTURE_2D, l, GL_RGBA8, image.levelWidth(l), image.levelHeight(l), 0,
+                    GL_RGBA, GL_UNSIGNED_BYTE, image.levels[l]);
+        }
+    }
+
+    // Pixel-sharp up close, blended mips in the distance.
+    static void setMipFilters(int target, int levels) {
+        glTexParameteri(target, GL_TEXTURE_MIN_FILTER, levels > 1 ? GL_NEAREST_MIPMAP_LINEAR : GL_NEAREST);
+        glTexParameteri(target, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        glTexParameteri(target, GL_TEXTURE_MAX_LEVEL, levels - 1);
+    }
+
+    /**
+     * Returns a texture id right away, holding a 1x1 placeholder of {@code placeholderRGBA}
+     * (0xRRGGBBAA) until the decoded image is uploaded by the {@link TextureStreamer}.
+     * Textures are shared per path through the {@link GpuResourceCache}; pair each call
+     * with {@link #releaseTexture}.
+     */
+    public static int requestTexture(String path, int placeholderRGBA) {
+        String key = "texture:" + path;
+        StreamedTexture texture;
+        try {
+            texture = GpuResourceCache.get().acquire(key, () -> new StreamedTexture(path, placeholderRGBA));
+        } catch (Exception e) {
+            throw new RuntimeException("Texture request failed: " + path, e);
+        }
+        keys.put(texture.id, key);
+        return texture.id;
+    }
+
+    // Cache keys of ids handed out by requestTexture; GL thread only.
+    private static final Map<Integer, String> keys = new HashMap<>();
+
+    // Ids from requestTexture still showing their placeholder.
+    private static final Set<Integer> pending = new HashSet<>();
+
+    /** True once the real image (or a failed decode) has replaced the placeholder. */
+    public static boolean isTextureReady(int textureId) {
+        return !pending.contains(textureId);
+    }
+
+    /** Drops one reference to a texture from {@link #requestTexture}; it stays resident while the cache has room. */
+    public static void releaseTexture(int textureId) {
+        String key = keys.get(textureId);
+        if (key != null) GpuResourceCache.get().release(key);
+    }
+
+    private static final class StreamedTexture implements GpuResourceCache.Resource {
+        final int id;
+        long bytes = 4;
+        boolean deleted;
+
+        StreamedTexture(String path, int placeholderRGBA) {
+            id = glGenTextures();
+            GLState.bindTexture(GL_TEXTURE_2D, id);
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                ByteBuffer px = stack.malloc(4);
+                putRGBA(px, 0, placeholderRGBA);
+                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, 1, 1, 0, GL_RGBA, GL_UNSIGNED_BYTE, px);
             }
+            setMipFilters(GL_TEXTURE_2D, 1);
+
+            pending.add(id);
+            TextureStreamer.get().request(path, 0, 0, image -> {
+                // Evicted before the upload arrived, or the decode failed.
+                if (deleted) return;
+                pending.remove(id);
+                if (image == null) return;
+                GLState.bindTexture(GL_TEXTURE_2D, id);
+                uploadLevels(image);
+                setMipFilters(GL_TEXTURE_2D, image.levels.length);
+                bytes = (long) image.width * image.height * 4 * 4 / 3;
+            });
+        }
+
+        @Override public long getGpuBytes() { return bytes; }
+
+        @Override
+        public void dispose() {
+            deleted = true;
+            keys.remove(id);
+            pending.remove(id);
+            GLState.deleteTexture(id);
         }
-        buffer.flip();
+    }
 
-        int textureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureId);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        glBindTexture(GL_TEXTURE_2D, 0);
+    static void putRGBA(ByteBuffer buf, int offset, int rgba) {
+        buf.put(offset,     (byte) (rgba >>> 24));
+        buf.put(offset + 1, (byte) (rgba >>> 16));
+        buf.put(offset + 2, (byte) (rgba >>> 8));
+        buf.put(offset + 3, (byte) rgba);
+    }
 
-        return textureId;
+    static ByteBuffer readAll(String path) throws Exception {
+        try (InputStream in = TextureLoader.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new Exception("Texture not found: " + path);
+            }
+            byte[] bytes = in.readAllBytes();
+            ByteBuffer buf = MemoryUtil.memAlloc(bytes.length);
+            buf.put(bytes).flip();
+            return buf;
+        }
     }
-}
\ No newline at end of file
+}
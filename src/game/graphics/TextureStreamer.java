@@ -0,0 +1,101 @@
+package game.graphics;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous texture pipeline. Decoding (and any resampling) runs on a small
+ * worker pool; the resulting pixels are handed back to the GL thread, which
+ * uploads them in {@link #drainUploads(long)} under a per-frame time budget.
+ * Callers keep a placeholder bound until their upload callback has run.
+ */
+public final class TextureStreamer {
+    private static final TextureStreamer INSTANCE = new TextureStreamer();
+
+    private final ExecutorService workers;
+    private final ConcurrentLinkedQueue<Upload> uploads = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // A decoded image and what to do with it on the GL thread; image is null if decoding failed.
+    private record Upload(TextureLoader.Image image, Consumer<TextureLoader.Image> callback) {}
+
+    private TextureStreamer() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger n = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-worker-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static TextureStreamer get() { return INSTANCE; }
+
+    /**
+     * Loads {@code path} off-thread through the {@link TextureCache} (mips included),
+     * resampled to width x height unless either is 0,
+     * then calls {@code upload} on the GL thread. The image is freed after the callback;
+     * it is null if decoding failed, in which case the placeholder should stay.
+     */
+    public void request(String path, int width, int height, Consumer<TextureLoader.Image> upload) {
+        pending.incrementAndGet();
+        workers.execute(() -> {
+            TextureLoader.Image image;
+            try {
+                image = TextureCache.load(path, width, height);
+            } catch (Exception e) {
+                System.err.println("Texture decode failed, keeping placeholder: " + e.getMessage());
+                image = null;
+            }
+            uploads.add(new Upload(image, upload));
+        });
+    }
+
+    /** Runs CPU-side work (e.g. level precomputation) on the same worker pool. */
+    public void execute(Runnable task) {
+        workers.execute(task);
+    }
+
+    /**
+     * GL thread only. Uploads decoded textures until {@code budgetNanos} is spent;
+     * at least one upload runs per call so loading always makes progress.
+     */
+    public void drainUploads(long budgetNanos) {
+        long start = System.nanoTime();
+        Upload u;
+        while ((u = uploads.poll()) != null) {
+            try {
+                u.callback.accept(u.image);
+            } finally {
+                if (u.image != null) u.image.free();
+                pending.decrementAndGet();
+            }
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+    }
+
+    /** Requests still decoding or waiting for upload. */
+    public int getPendingCount() { return pending.get(); }
+
+    /** Stops the workers, then frees anything decoded but never uploaded; no GL calls. */
+    public void shutdown() {
+        pending.addAndGet(-workers.shutdownNow().size());   // never started, so nothing to free
+        try {
+            // A decode already past its interrupt checks still queues its image; wait for it.
+            if (!workers.awaitTermination(2, TimeUnit.SECONDS)) {
+                System.err.println("Texture workers still busy at shutdown; their images may leak.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Upload u;
+        while ((u = uploads.poll()) != null) {
+            if (u.image != null) u.image.free();
+            pending.decrementAndGet();
+        }
+    }
+}
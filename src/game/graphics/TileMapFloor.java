@@ -0,0 +1,82 @@
+package game.graphics;
+
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ShortBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * The floor plane of a whole level: one R16UI texel per tile holding its
+ * texture-array layer + 1 (0 = no floor), and a single quad spanning the map.
+ * The floor shader looks each fragment's tile up in the map, so the draw costs
+ * the same for any map size and a door toggle is a one-texel update.
+ */
+public class TileMapFloor {
+    private final int mapTextureId;
+    private final int vaoId, vboId;
+    private final int rows, cols;
+
+    /** {@code layers} is row-major, rows x cols, -1 for tiles without a floor. */
+    TileMapFloor(int[] layers, int rows, int cols, float tileSize) {
+        this.rows = rows;
+        this.cols = cols;
+
+        ShortBuffer texels = MemoryUtil.memAllocShort(rows * cols);
+        for (int i = 0; i < rows * cols; i++) texels.put(i, (short) (layers[i] + 1));
+        mapTextureId = glGenTextures();
+        GLState.bindTexture(GL_TEXTURE_2D, mapTextureId);
+        // Rows are 2-byte texels, so odd widths aren't 4-byte aligned.
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 2);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_R16UI, cols, rows, 0, GL_RED_INTEGER, GL_UNSIGNED_SHORT, texels);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAX_LEVEL, 0);
+        MemoryUtil.memFree(texels);
+
+        float w = cols * tileSize, d = rows * tileSize;
+        float[] quad = {
+                0f, 0f,   w, 0f,   w, d,
+                0f, 0f,   w, d,   0f, d
+        };
+        vaoId = glGenVertexArrays();
+        GLState.bindVertexArray(vaoId);
+        vboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, quad, GL_STATIC_DRAW);
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+        glEnableVertexAttribArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        GLState.bindVertexArray(0);
+    }
+
+    /** Points one tile at another layer (-1 for no floor), e.g. when a door opens. */
+    public void setTile(int row, int col, int layer) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return;
+        GLState.bindTexture(GL_TEXTURE_2D, mapTextureId);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            ShortBuffer texel = stack.mallocShort(1).put(0, (short) (layer + 1));
+            glTexSubImage2D(GL_TEXTURE_2D, 0, col, row, 1, 1, GL_RED_INTEGER, GL_UNSIGNED_SHORT, texel);
+        }
+    }
+
+    // The tile array is bound on unit 0 by the queue; the map goes on unit 1.
+    void draw() {
+        GLState.activeTexture(1);
+        GLState.bindTexture(GL_TEXTURE_2D, mapTextureId);
+        GLState.activeTexture(0);
+        GLState.bindVertexArray(vaoId);
+        glDrawArrays(GL_TRIANGLES, 0, 6);
+    }
+
+    public void cleanup() {
+        GLState.deleteTexture(mapTextureId);
+        glDeleteBuffers(vboId);
+        GLState.deleteVertexArray(vaoId);
+    }
+}
@@ -0,0 +1,50 @@
+package game.graphics;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/** Static world-space wall geometry (x, y, z, u, v, layer) for one chunk, all textures together. */
+public class WallMesh {
+    private final int vaoId;
+    private final int vboId;
+    private int vertexCount;
+
+    public WallMesh() {
+        vaoId = glGenVertexArrays();
+        GLState.bindVertexArray(vaoId);
+        vboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, 0L, GL_STATIC_DRAW);
+        int stride = WallMesher.FLOATS_PER_VERTEX * Float.BYTES;
+        glVertexAttribPointer(0, 3, GL_FLOAT, false, stride, 0);
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, stride, 3 * Float.BYTES);
+        glEnableVertexAttribArray(1);
+        glVertexAttribPointer(3, 1, GL_FLOAT, false, stride, 5 * Float.BYTES);
+        glEnableVertexAttribArray(3);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        GLState.bindVertexArray(0);
+    }
+
+    public void upload(float[] vertices) {
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, vertices, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        vertexCount = vertices.length / WallMesher.FLOATS_PER_VERTEX;
+    }
+
+    public int getVertexCount() { return vertexCount; }
+
+    void draw() {
+        if (vertexCount == 0) return;
+        GLState.bindVertexArray(vaoId);
+        glDrawArrays(GL_TRIANGLES, 0, vertexCount);
+    }
+
+    public void cleanup() {
+        glDeleteBuffers(vboId);
+        GLState.deleteVertexArray(vaoId);
+    }
+}
@@ -0,0 +1,141 @@
+package game.graphics;
+
+import game.config.GameConfig;
+import game.map.Tile;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Builds static wall geometry from the tile grid.
+ *
+ * Only the vertical faces of cube tiles that border a see-through tile (walkable,
+ * an open door, or not a cube at all) are emitted; faces pressed against another
+ * wall, faces on the map border and the top/bottom caps are dropped. Coplanar runs
+ * of same-texture faces along a row or column are merged into one quad whose U
+ * coordinate runs 0..n, so the texture repeats once per tile (GL_REPEAT).
+ *
+ * Vertex format matches the old unit cube plus the texture-array layer:
+ * x, y, z, u, v, layer (v = 0 at the top).
+ */
+public final class WallMesher {
+    private static final float TS = GameConfig.TILE_SIZE;
+    private static final float H  = GameConfig.ROOM_HEIGHT;
+    public static final int FLOATS_PER_VERTEX = 6;
+
+    private WallMesher() {}
+
+    /**
+     * Meshes the cube tiles in rows [row0, row1) and columns [col0, col1) into one vertex array.
+     * {@code layerOf} maps a texture path to its texture-array layer; faces whose texture has
+     * no layer (negative) are skipped.
+     */
+    public static float[] build(Tile[][] tiles, int row0, int col0, int row1, int col1,
+                                ToIntFunction<String> layerOf) {
+        FloatArray out = new FloatArray();
+
+        // North (-z) and south (+z) faces: runs along x within each row.
+        for (int r = row0; r < row1; r++) {
+            emitRowRuns(tiles, out, layerOf, r, col0, col1, -1);
+            emitRowRuns(tiles, out, layerOf, r, col0, col1, +1);
+        }
+        // West (-x) and east (+x) faces: runs along z within each column.
+        for (int c = col0; c < col1; c++) {
+            emitColumnRuns(tiles, out, layerOf, c, row0, row1, -1);
+            emitColumnRuns(tiles, out, layerOf, c, row0, row1, +1);
+        }
+        return out.toArray();
+    }
+
+    private static void emitRowRuns(Tile[][] tiles, FloatArray buf, ToIntFunction<String> layerOf,
+                                    int r, int col0, int col1, int dRow) {
+        int c = col0;
+        while (c < col1) {
+            String tex = faceTexture(tiles, r, c, r + dRow, c);
+            if (tex == null) { c++; continue; }
+            int start = c;
+            while (c < col1 && tex.equals(faceTexture(tiles, r, c, r + dRow, c))) c++;
+
+            int layer = layerOf.applyAsInt(tex);
+            if (layer < 0) continue;
+            int n = c - start;
+            float x0 = start * TS, x1 = c * TS;
+            if (dRow < 0) {
+                // North face (old cube "back"): U grows toward -x.
+                float z = r * TS;
+                quad(buf, x1, z, x0, z, n, layer);
+            } else {
+                // South face (old cube "front"): U grows toward +x.
+                float z = (r + 1) * TS;
+                quad(buf, x0, z, x1, z, n, layer);
+            }
+        }
+    }
+
+    private static void emitColumnRuns(Tile[][] tiles, FloatArray buf, ToIntFunction<String> layerOf,
+                                       int c, int row0, int row1, int dCol) {
+        int r = row0;
+        while (r < row1) {
+            String tex = faceTexture(tiles, r, c, r, c + dCol);
+            if (tex == null) { r++; continue; }
+            int start = r;
+            while (r < row1 && tex.equals(faceTexture(tiles, r, c, r, c + dCol))) r++;
+
+            int layer = layerOf.applyAsInt(tex);
+            if (layer < 0) continue;
+            int n = r - start;
+            float z0 = start * TS, z1 = r * TS;
+            if (dCol < 0) {
+                // West face (old cube "left"): U grows toward +z.
+                float x = c * TS;
+                quad(buf, x, z0, x, z1, n, layer);
+            } else {
+                // East face (old cube "right"): U grows toward -z.
+                float x = (c + 1) * TS;
+                quad(buf, x, z1, x, z0, n, layer);
+            }
+        }
+    }
+
+    // Texture of the face of (r, c) that looks at (nr, nc), or null if that face is hidden.
+    private static String faceTexture(Tile[][] tiles, int r, int c, int nr, int nc) {
+        Tile t = tiles[r][c];
+        if (!isSolidCube(t)) return null;
+        if (nr < 0 || nr >= tiles.length || nc < 0 || nc >= tiles[0].length) return null;
+        if (!isSeeThrough(tiles[nr][nc])) return null;
+        return t.getDefinition().getTexture();
+    }
+
+    static boolean isSolidCube(Tile t) {
+        return "cube".equals(t.getDefinition().getRenderer()) && !(t.isOpenable() && t.isOpen());
+    }
+
+    // A door's walkability belongs to the simulation thread; the mesh follows its open
+    // state, which the GL thread applies from snapshots. Other tiles never change.
+    static boolean isSeeThrough(Tile t) {
+        return !isSolidCube(t) || (!t.isOpenable() && t.isWalkable());
+    }
+
+    // Full-height quad from (xa, za) [u = 0] to (xb, zb) [u = n].
+    private static void quad(FloatArray buf, float xa, float za, float xb, float zb, float n, float layer) {
+        buf.add(xa, H, za, 0, 0, layer);
+        buf.add(xb, H, zb, n, 0, layer);
+        buf.add(xb, 0, zb, n, 1, layer);
+        buf.add(xa, H, za, 0, 0, layer);
+        buf.add(xb, 0, zb, n, 1, layer);
+        buf.add(xa, 0, za, 0, 1, layer);
+    }
+
+    private static final class FloatArray {
+        private float[] data = new float[FLOATS_PER_VERTEX * 6 * 8];
+        private int size;
+
+        void add(float x, float y, float z, float u, float v, float layer) {
+            if (size + FLOATS_PER_VERTEX > data.length) data = Arrays.copyOf(data, data.length * 2);
+            data[size++] = x; data[size++] = y; data[size++] = z;
+            data[size++] = u; data[size++] = v; data[size++] = layer;
+        }
+
+        float[] toArray() { return Arrays.copyOf(data, size); }
+    }
+}
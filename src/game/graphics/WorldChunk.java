@@ -0,0 +1,39 @@
+package game.graphics;
+
+import game.config.GameConfig;
+
+/**
+ * A fixed-size square of tiles with its own wall mesh. Only chunks flagged dirty
+ * are re-meshed, so a tile change costs the same regardless of map size. Floors
+ * aren't chunked; they are one {@link TileMapFloor} for the whole level.
+ */
+final class WorldChunk {
+    final int row0, col0;   // first tile (inclusive)
+    final int row1, col1;   // last tile (exclusive)
+
+    // World-space bounds used for frustum culling.
+    final float minX, minZ, maxX, maxZ;
+    final float maxY = GameConfig.ROOM_HEIGHT;
+
+    boolean dirty = true;
+    boolean visible = true;
+
+    // Exposed wall faces of every texture; null until first built.
+    WallMesh wallMesh;
+
+    WorldChunk(int row0, int col0, int row1, int col1) {
+        this.row0 = row0;
+        this.col0 = col0;
+        this.row1 = row1;
+        this.col1 = col1;
+        this.minX = col0 * GameConfig.TILE_SIZE;
+        this.minZ = row0 * GameConfig.TILE_SIZE;
+        this.maxX = col1 * GameConfig.TILE_SIZE;
+        this.maxZ = row1 * GameConfig.TILE_SIZE;
+    }
+
+    void cleanup() {
+        if (wallMesh != null) wallMesh.cleanup();
+        wallMesh = null;
+    }
+}
@@ -0,0 +1,163 @@
+package game.graphics;
+
+import game.config.GameConfig;
+
+import java.util.List;
+
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Draws all world tiles with one {@link TextureArray}. The floor plane (floors,
+ * quads, open doors) is a single {@link TileMapFloor} quad whose shader looks up
+ * each tile's layer; walls are {@link WallMesh}es carrying the layer per vertex.
+ * The array and programs live in the {@link GpuResourceCache}, so the next level
+ * reuses whatever tiles it shares with this one.
+ * <p>
+ * With {@link GameConfig#DEPTH_PREPASS} everything is first drawn depth-only with
+ * trivial fragment shaders, then shaded with LEQUAL and no depth writes, so each
+ * pixel is textured once. Both passes share vertex shaders declaring
+ * {@code invariant gl_Position}, so their depths match exactly.
+ */
+public class WorldTileRenderer {
+    private static final String TEXTURES_KEY = "texture-array:tiles";
+
+    private final TextureArray textures;
+    private final List<String> texturePaths;
+    private final ShaderProgram wallProgram;
+    private final ShaderProgram floorProgram;
+    private ShaderProgram wallDepthProgram, floorDepthProgram;   // only with the pre-pass
+    private final int shadeState;
+    private final float tileSize;
+
+    public WorldTileRenderer(List<String> texturePaths, float tileSize) throws Exception {
+        this.tileSize = tileSize;
+        // Tiles stream in; until then they show a flat grey placeholder.
+        textures = GpuResourceCache.get().acquire(TEXTURES_KEY, () -> new TextureArray(
+                GameConfig.TILE_TEXTURE_SIZE, GameConfig.TILE_TEXTURE_SIZE, GameConfig.TEXTURE_ARRAY_LAYERS, 0x606060FF));
+        this.texturePaths = List.copyOf(texturePaths);
+        for (String path : this.texturePaths) textures.acquire(path);
+
+        String wallVertexSource = "#version 330 core\n" +
+                "layout(location = 0) in vec3 position;\n" +
+                "layout(location = 1) in vec2 texCoord;\n" +
+                "layout(location = 3) in float layer;\n" +
+                "out vec3 passTexCoord;\n" +
+                "invariant gl_Position;\n" +
+                CameraUniforms.GLSL_BLOCK +
+                "void main() {\n" +
+                "    passTexCoord = vec3(texCoord, layer);\n" +
+                "    gl_Position = projection * view * vec4(position, 1.0);\n" +
+                "}";
+        String wallFragmentSource = "#version 330 core\n" +
+                "in vec3 passTexCoord;\n" +
+                "out vec4 fragColor;\n" +
+                "uniform sampler2DArray tileTextures;\n" +
+                "void main() {\n" +
+                "    fragColor = texture(tileTextures, passTexCoord);\n" +
+                "}";
+        wallProgram = ShaderRegistry.acquire(wallVertexSource, wallFragmentSource);
+        wallProgram.use();
+        glUniform1i(wallProgram.getUniformLocation("tileTextures"), 0);
+        wallProgram.stop();
+
+        // Floor position is in tile units, so the tile is floor(p) and its UV is fract(p).
+        String floorVertexSource = "#version 330 core\n" +
+                "layout(location = 0) in vec2 position;\n" +
+                "out vec2 tilePos;\n" +
+                "uniform float tileSize;\n" +
+                "invariant gl_Position;\n" +
+                CameraUniforms.GLSL_BLOCK +
+                "void main() {\n" +
+                "    tilePos = position / tileSize;\n" +
+                "    gl_Position = projection * view * vec4(position.x, 0.0, position.y, 1.0);\n" +
+                "}";
+        String floorFragmentSource = "#version 330 core\n" +
+                "in vec2 tilePos;\n" +
+                "out vec4 fragColor;\n" +
+                "uniform sampler2DArray tileTextures;\n" +
+                "uniform usampler2D tileMap;\n" +
+                "void main() {\n" +
+                "    ivec2 cell = clamp(ivec2(floor(tilePos)), ivec2(0), textureSize(tileMap, 0) - 1);\n" +
+                "    uint id = texelFetch(tileMap, cell, 0).r;\n" +
+                "    if (id == 0u) discard;\n" +
+                // Gradients of the continuous position, so mip selection doesn't jump at tile edges.
+                "    fragColor = textureGrad(tileTextures, vec3(fract(tilePos), float(id - 1u)),\n" +
+                "                            dFdx(tilePos), dFdy(tilePos));\n" +
+                "}";
+        floorProgram = ShaderRegistry.acquire(floorVertexSource, floorFragmentSource);
+        floorProgram.use();
+        glUniform1i(floorProgram.getUniformLocation("tileTextures"), 0);
+        glUniform1i(floorProgram.getUniformLocation("tileMap"), 1);
+        glUniform1f(floorProgram.getUniformLocation("tileSize"), tileSize);
+        floorProgram.stop();
+
+        shadeState = GameConfig.DEPTH_PREPASS ? RenderQueue.STATE_WORLD_AFTER_PREPASS : RenderQueue.STATE_WORLD;
+        if (GameConfig.DEPTH_PREPASS) {
+            wallDepthProgram = ShaderRegistry.acquire(wallVertexSource, "#version 330 core\nvoid main() {}");
+            // Tiles without a floor must stay holes in the depth buffer too.
+            String floorDepthSource = "#version 330 core\n" +
+                    "in vec2 tilePos;\n" +
+                    "uniform usampler2D tileMap;\n" +
+                    "void main() {\n" +
+                    "    ivec2 cell = clamp(ivec2(floor(tilePos)), ivec2(0), textureSize(tileMap, 0) - 1);\n" +
+                    "    if (texelFetch(tileMap, cell, 0).r == 0u) discard;\n" +
+                    "}";
+            floorDepthProgram = ShaderRegistry.acquire(floorVertexSource, floorDepthSource);
+            floorDepthProgram.use();
+            glUniform1i(floorDepthProgram.getUniformLocation("tileMap"), 1);
+            glUniform1f(floorDepthProgram.getUniformLocation("tileSize"), tileSize);
+            floorDepthProgram.stop();
+        }
+    }
+
+    public int layerOf(String texturePath) {
+        return textures.layerOf(texturePath);
+    }
+
+    // Creates the floor of a rows x cols map from row-major layers (-1 = none); owned by the caller.
+    public TileMapFloor createFloor(int[] layers, int rows, int cols) {
+        return new TileMapFloor(layers, rows, cols, tileSize);
+    }
+
+    /**
+     * Queues the floor and wall meshes; walls share one program and texture, so
+     * the queue orders them purely by depth. The camera comes from the
+     * CameraUniforms block, so nothing is uploaded per draw.
+     */
+    public void submit(TileMapFloor floor) {
+        if (floorDepthProgram != null) submitDepth(floorDepthProgram, 0f, FLOOR_COMMAND, floor);
+        int program = floorProgram.getId();
+        RenderQueue.get().submit(RenderQueue.opaqueKey(program, textures.getId(), 0f), program,
+                GL_TEXTURE_2D_ARRAY, textures.getId(), shadeState, FLOOR_COMMAND).payload = floor;
+    }
+
+    public void submit(WallMesh mesh, float depth) {
+        if (mesh.getVertexCount() == 0) return;
+        if (wallDepthProgram != null) submitDepth(wallDepthProgram, depth, WALL_COMMAND, mesh);
+        int program = wallProgram.getId();
+        RenderQueue.get().submit(RenderQueue.opaqueKey(program, textures.getId(), depth), program,
+                GL_TEXTURE_2D_ARRAY, textures.getId(), shadeState, WALL_COMMAND).payload = mesh;
+    }
+
+    // Depth-only copy of a draw; it needs no tile texture (the floor binds its own map).
+    private static void submitDepth(ShaderProgram program, float depth, RenderQueue.Command command, Object payload) {
+        int id = program.getId();
+        RenderQueue.get().submit(RenderQueue.depthKey(id, depth), id, 0, 0, RenderQueue.STATE_PREPASS, command)
+                .payload = payload;
+    }
+
+    private static final RenderQueue.Command FLOOR_COMMAND = item -> ((TileMapFloor) item.payload).draw();
+
+    private static final RenderQueue.Command WALL_COMMAND = item -> ((WallMesh) item.payload).draw();
+
+    public void cleanup() {
+        ShaderRegistry.release(wallProgram);
+        ShaderRegistry.release(floorProgram);
+        if (wallDepthProgram != null)  ShaderRegistry.release(wallDepthProgram);
+        if (floorDepthProgram != null) ShaderRegistry.release(floorDepthProgram);
+        // Layers stay resident for the next level until the pool needs them.
+        for (String path : texturePaths) textures.release(path);
+        GpuResourceCache.get().release(TEXTURES_KEY);
+    }
+}
@@ -5,25 +5,39 @@ import game.world.Player;
 import static org.lwjgl.glfw.GLFW.*;
 
 public class KeyboardInput {
-    public void processInput(Player player, float deltaTime, MapData mapData) {
+    // Held-key bits. GLFW can only be polled on the main thread, so it samples
+    // them and the simulation thread reads the bits.
+    public static final int FORWARD = 1, BACK = 2, TURN_LEFT = 4, TURN_RIGHT = 8, INTERACT = 16;
+
+    /** Main thread only. */
+    public static int sample(long window) {
+        int keys = 0;
+        if (glfwGetKey(window, GLFW_KEY_W) == GLFW_PRESS) keys |= FORWARD;
+        if (glfwGetKey(window, GLFW_KEY_S) == GLFW_PRESS) keys |= BACK;
+        if (glfwGetKey(window, GLFW_KEY_A) == GLFW_PRESS) keys |= TURN_LEFT;
+        if (glfwGetKey(window, GLFW_KEY_D) == GLFW_PRESS) keys |= TURN_RIGHT;
+        if (glfwGetKey(window, GLFW_KEY_E) == GLFW_PRESS) keys |= INTERACT;
+        return keys;
+    }
+
+    public void processInput(Player player, float deltaTime, MapData mapData, int keys) {
         float moveSpeed = 5.0f;
         float rotateSpeed = 90.0f;
-        long context = glfwGetCurrentContext();
 
-        if (glfwGetKey(context, GLFW_KEY_W) == GLFW_PRESS) {
+        if ((keys & FORWARD) != 0) {
             player.move((float)Math.sin(Math.toRadians(player.getYaw())) * moveSpeed * deltaTime,
                     -(float)Math.cos(Math.toRadians(player.getYaw())) * moveSpeed * deltaTime,
                     mapData);
         }
-        if (glfwGetKey(context, GLFW_KEY_S) == GLFW_PRESS) {
+        if ((keys & BACK) != 0) {
             player.move(-(float)Math.sin(Math.toRadians(player.getYaw())) * moveSpeed * deltaTime,
                     (float)Math.cos(Math.toRadians(player.getYaw())) * moveSpeed * deltaTime,
                     mapData);
         }
-        if (glfwGetKey(context, GLFW_KEY_D) == GLFW_PRESS) {
+        if ((keys & TURN_RIGHT) != 0) {
             player.rotate(rotateSpeed * deltaTime);
         }
-        if (glfwGetKey(context, GLFW_KEY_A) == GLFW_PRESS) {
+        if ((keys & TURN_LEFT) != 0) {
             player.rotate(-rotateSpeed * deltaTime);
         }
     }
@@ -3,5 +3,5 @@ import java.util.ArrayList; import java.util.List;
 public final class EventBus {
     private final List<EventListener> listeners = new ArrayList<>();
     public void subscribe(EventListener l){ listeners.add(l); }
-    public void post(GameEvent e){ for (EventListener l: listeners) l.onEvent(e); }
+    public void post(GameEvent e){ for (int i = 0; i < listeners.size(); i++) listeners.get(i).onEvent(e); }
 }
\ No newline at end of file
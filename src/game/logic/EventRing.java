@@ -0,0 +1,40 @@
+package game.logic;
+
+/**
+ * Allocation-free handover of {@link GameEvent}s from one writer thread to one reader:
+ * a fixed ring of slots with the write and read counts published through volatiles.
+ * A writer that finds the ring full drops the event instead of waiting, so the reader
+ * has to drain it more often than it can fill (every frame, for the simulation's events).
+ */
+public final class EventRing implements EventListener {
+    private final GameEvent[] slots;
+    private final int mask;
+    private volatile long written;   // writer's
+    private volatile long read;      // reader's
+
+    /** {@code capacity} is rounded up to a power of two. */
+    public EventRing(int capacity) {
+        slots = new GameEvent[Integer.highestOneBit(Math.max(1, capacity - 1)) << 1];
+        mask = slots.length - 1;
+    }
+
+    /** Writer only: queues {@code e}, or drops it if the reader is a whole ring behind. */
+    @Override
+    public void onEvent(GameEvent e) {
+        long w = written;
+        if (w - read == slots.length) return;
+        slots[(int) w & mask] = e;
+        written = w + 1;
+    }
+
+    /** Reader only: the oldest queued event, or null if there is none. */
+    public GameEvent poll() {
+        long r = read;
+        if (r == written) return null;
+        int i = (int) r & mask;
+        GameEvent e = slots[i];
+        slots[i] = null;
+        read = r + 1;
+        return e;
+    }
+}
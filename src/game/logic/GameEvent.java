@@ -7,4 +7,10 @@ public final class GameEvent {
         this.type = type; this.x = x; this.y = y;
     }
     public static GameEvent simple(GameEventType t){ return new GameEvent(t,-1,-1); }
+    /** One event per map cell, at [row * width + col]: events are immutable, so posting these again allocates nothing. */
+    public static GameEvent[] perCell(GameEventType t, int width, int height){
+        GameEvent[] events = new GameEvent[width * height];
+        for (int i = 0; i < events.length; i++) events[i] = new GameEvent(t, i % width, i / width);
+        return events;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package game.logic;
 public enum GameEventType {
     LEVEL_START, LEVEL_END,
     ENTER_TILE,
+    TILE_CHANGED,
     TIMER_TICK,
     ENEMY_SPOTTED_PLAYER,
     PLAYER_DEFEATED_BY_ENEMY
@@ -49,6 +49,7 @@ public final class ObjectiveManager implements EventListener {
     }
 
     public java.util.List<String> drainCompletedPopups() {
+        if (popupQueue.isEmpty()) return java.util.Collections.emptyList();   // the per-frame case
         java.util.List<String> out = new java.util.ArrayList<>(popupQueue);
         popupQueue.clear();
         return out;
@@ -1,25 +1,24 @@
 package game.ui;
 
 import game.core.Window;
-import game.util.FontLoader;
 import game.achievements.Achievement;
 import game.achievements.AchievementsManager;
 import game.graphics.TextureLoader;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.util.ArrayList;
 import java.util.List;
 import java.lang.reflect.Field;
 
-import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL12.*;
-
 public class AchievementsOverlay {
 
     private final OverlayRenderer renderer;
 
-    private TextTexture headerTex;
+    private static final String FONT = "/data/font.ttf";
+
+    private final TextLabel headerTex;
+    // The whole list; redrawn only once the streamed icons have all arrived.
+    private final UiLayer layer = new UiLayer();
+    private boolean iconsPending = true;
     private final List<Entry> entries = new ArrayList<>();
 
     private static final int ICON_SIZE = 48;
@@ -27,11 +26,11 @@ public class AchievementsOverlay {
 
     private static final class Entry {
         final Achievement achievement;
-        final TextTexture text;
+        final TextLabel text;
         final int lockedTex;
         final int unlockedTex;
 
-        Entry(Achievement achievement, TextTexture text, int lockedTex, int unlockedTex) {
+        Entry(Achievement achievement, TextLabel text, int lockedTex, int unlockedTex) {
             this.achievement = achievement;
             this.text = text;
             this.lockedTex = lockedTex;
@@ -40,24 +39,22 @@ public class AchievementsOverlay {
 
         void cleanup() {
             if (text != null) text.cleanup();
-            if (lockedTex != 0) glDeleteTextures(lockedTex);
-            if (unlockedTex != 0 && unlockedTex != lockedTex) glDeleteTextures(unlockedTex);
+            // Shared icons come back with the same id; each load holds its own reference.
+            if (lockedTex != 0) TextureLoader.releaseTexture(lockedTex);
+            if (unlockedTex != 0) TextureLoader.releaseTexture(unlockedTex);
         }
     }
 
     public AchievementsOverlay(Window window) {
         this.renderer = new OverlayRenderer(window);
 
-        Font headerFont = FontLoader.loadFont("/data/font.ttf", 28f);
-        Font bodyFont   = FontLoader.loadFont("/data/font.ttf", 18f);
-
-        headerTex = new TextTexture("Achievements", headerFont, 4, 4, Color.WHITE);
+        headerTex = new TextLabel(FONT, 28f, 4, 4, TextLabel.WHITE, "Achievements");
 
         for (Achievement a : AchievementsManager.get().list()) {
             String lines = a.title + "\n" + a.description;
 
-            Color color = a.unlocked ? Color.WHITE : new Color(200, 200, 200, 255);
-            TextTexture text = new TextTexture(lines, bodyFont, 4, 2, color);
+            int color = a.unlocked ? TextLabel.WHITE : 0xC8C8C8FF;
+            TextLabel text = new TextLabel(FONT, 18f, 4, 2, color, lines);
 
             String[] paths = resolveIconPaths(a);
             int locked = loadIcon(paths[0]);
@@ -70,47 +67,35 @@ public class AchievementsOverlay {
     }
 
     public void render() {
+        if (iconsPending && iconsReady()) {
+            iconsPending = false;
+            layer.markDirty();
+        }
+        if (renderer.beginLayer(layer)) {
+            draw();
+            renderer.endLayer();
+        }
+        renderer.renderLayer(layer);
+    }
+
+    private boolean iconsReady() {
+        for (Entry e : entries) {
+            if (!TextureLoader.isTextureReady(e.lockedTex) || !TextureLoader.isTextureReady(e.unlockedTex)) return false;
+        }
+        return true;
+    }
+
+    private void draw() {
         int x = 40;
         int y = 40;
 
         renderer.render(headerTex, x, y, false, 0, 0, 0, 0);
         y += headerTex.getHeight() + 16;
 
+        // Icons and text share one batch; rows cost a few quads each, not draw calls.
         for (Entry e : entries) {
             int iconTex = e.achievement.unlocked ? e.unlockedTex : e.lockedTex;
-            if (iconTex != 0) {
-                glDisable(GL_DEPTH_TEST);
-                glEnable(GL_TEXTURE_2D);
-                glEnable(GL_BLEND);
-                glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-
-                glMatrixMode(GL_PROJECTION);
-                glPushMatrix();
-                glLoadIdentity();
-                glOrtho(0, renderer.window.getWidth(), renderer.window.getHeight(), 0, -1, 1);
-
-                glMatrixMode(GL_MODELVIEW);
-                glPushMatrix();
-                glLoadIdentity();
-
-                glBindTexture(GL_TEXTURE_2D, iconTex);
-                glColor3f(1, 1, 1);
-                glBegin(GL_QUADS);
-                glTexCoord2f(0, 0); glVertex2f(x,              y);
-                glTexCoord2f(1, 0); glVertex2f(x + ICON_SIZE,  y);
-                glTexCoord2f(1, 1); glVertex2f(x + ICON_SIZE,  y + ICON_SIZE);
-                glTexCoord2f(0, 1); glVertex2f(x,              y + ICON_SIZE);
-                glEnd();
-
-                glDisable(GL_TEXTURE_2D);
-                glDisable(GL_BLEND);
-                glEnable(GL_DEPTH_TEST);
-
-                glMatrixMode(GL_PROJECTION);
-                glPopMatrix();
-                glMatrixMode(GL_MODELVIEW);
-                glPopMatrix();
-            }
+            if (iconTex != 0) renderer.renderImage(iconTex, x, y, ICON_SIZE, ICON_SIZE);
 
             int textX = x + ICON_SIZE + 10;
             renderer.render(e.text, textX, y, false, 0, 0, 0, 0);
@@ -147,18 +132,19 @@ public class AchievementsOverlay {
     }
 
     public void cleanup() {
-        if (headerTex != null) headerTex.cleanup();
+        headerTex.cleanup();
+        layer.cleanup();
         for (Entry e : entries) e.cleanup();
     }
 
     public static int loadIcon(String path) {
         if (path == null || path.isEmpty()) return 0;
-        try {
-            String p = (path.startsWith("/")) ? path : ("/" + path);
-            return TextureLoader.loadTexture(p);
-        } catch (Exception e) {
-            e.printStackTrace();
+        String p = (path.startsWith("/")) ? path : ("/" + path);
+        if (AchievementsOverlay.class.getResource(p) == null) {
+            System.err.println("Achievement icon not found: " + p);
             return 0;
         }
+        // Decoded in the background; transparent until the upload lands.
+        return TextureLoader.requestTexture(p, 0x00000000);
     }
 }
@@ -0,0 +1,193 @@
+package game.ui;
+
+import game.graphics.GLState;
+import game.graphics.GpuResourceCache;
+import game.util.FontLoader;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBTTAlignedQuad;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTTPackContext;
+import org.lwjgl.stb.STBTTPackedchar;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30.GL_R8;
+import static org.lwjgl.opengl.GL33.GL_TEXTURE_SWIZZLE_RGBA;
+import static org.lwjgl.stb.STBTruetype.*;
+
+/**
+ * One font at one size, baked once with stb_truetype into a single coverage texture.
+ * Covers printable ASCII plus the ellipsis; anything else draws as '?'. Shared
+ * through {@link GpuResourceCache}, so every label of the same font and size
+ * binds the same texture. Baking and layout are CPU-only (see {@link TextLabel});
+ * the texture is uploaded the first time a label is drawn.
+ */
+public final class FontAtlas implements GpuResourceCache.Resource {
+    private static final int FIRST = 32, LAST = 126;
+    private static final int ELLIPSIS = '…';
+    private static final int GLYPHS = LAST - FIRST + 2;   // ASCII range + ellipsis
+    private static final int MAX_SIZE = 4096;
+
+    /** Floats per vertex (x, y, s, t) and vertices per glyph quad. */
+    public static final int VERTEX_FLOATS = 4, QUAD_VERTICES = 4;
+
+    private final int atlasWidth, atlasHeight;
+    private int textureId;
+    private ByteBuffer pixels;   // coverage, held until the first upload
+    private final float ascent, lineHeight;
+    // Per glyph, relative to the pen on the baseline: x0 y0 x1 y1 s0 t0 s1 t1.
+    private final float[] quads = new float[GLYPHS * 8];
+    private final float[] advances = new float[GLYPHS];
+    private boolean deleted;
+
+    public static String key(String path, float size) { return "font:" + path + '@' + size; }
+
+    /** Shared atlas for {@code path} at {@code size} pixels per em; pair with {@link #release}. */
+    public static FontAtlas acquire(String path, float size) {
+        try {
+            return GpuResourceCache.get().acquire(key(path, size), () -> new FontAtlas(path, size));
+        } catch (Exception e) {
+            throw new RuntimeException("Font atlas failed: " + path, e);
+        }
+    }
+
+    public static void release(String path, float size) {
+        GpuResourceCache.get().release(key(path, size));
+    }
+
+    private FontAtlas(String path, float size) throws Exception {
+        ByteBuffer ttf = FontLoader.loadBytes(path);
+
+        STBTTFontinfo info = STBTTFontinfo.create();
+        if (!stbtt_InitFont(info, ttf)) throw new Exception("Not a TrueType font: " + path);
+        int[] asc = new int[1], desc = new int[1], gap = new int[1];
+        stbtt_GetFontVMetrics(info, asc, desc, gap);
+        float scale = stbtt_ScaleForMappingEmToPixels(info, size);
+        ascent = asc[0] * scale;
+        lineHeight = (asc[0] - desc[0] + gap[0]) * scale;
+
+        // Pack into the smallest power-of-two sheet that fits; negative size = pixels per em.
+        STBTTPackedchar.Buffer chars = STBTTPackedchar.create(GLYPHS);
+        int w = 256, h = 256;
+        while (true) {
+            pixels = BufferUtils.createByteBuffer(w * h);
+            if (pack(ttf, -size, chars, pixels, w, h)) break;
+            if (w == MAX_SIZE && h == MAX_SIZE) throw new Exception("Font too large to bake: " + path + " @ " + size);
+            if (h < w) h *= 2; else w *= 2;
+        }
+        atlasWidth = w;
+        atlasHeight = h;
+
+        STBTTAlignedQuad q = STBTTAlignedQuad.create();
+        float[] x = new float[1], y = new float[1];
+        for (int i = 0; i < GLYPHS; i++) {
+            x[0] = 0; y[0] = 0;
+            stbtt_GetPackedQuad(chars, w, h, i, x, y, q, false);
+            int o = i * 8;
+            quads[o]     = q.x0(); quads[o + 1] = q.y0();
+            quads[o + 2] = q.x1(); quads[o + 3] = q.y1();
+            quads[o + 4] = q.s0(); quads[o + 5] = q.t0();
+            quads[o + 6] = q.s1(); quads[o + 7] = q.t1();
+            advances[i] = x[0];
+        }
+    }
+
+    private void upload() {
+        textureId = glGenTextures();
+        GLState.bindTexture(GL_TEXTURE_2D, textureId);
+        // One channel, read back as white with coverage in alpha; the batch tints it.
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_R8, atlasWidth, atlasHeight, 0, GL_RED, GL_UNSIGNED_BYTE, pixels);
+        glTexParameteriv(GL_TEXTURE_2D, GL_TEXTURE_SWIZZLE_RGBA, new int[] { GL_ONE, GL_ONE, GL_ONE, GL_RED });
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        pixels = null;
+    }
+
+    private static boolean pack(ByteBuffer ttf, float size, STBTTPackedchar.Buffer chars,
+                                ByteBuffer pixels, int w, int h) {
+        try (STBTTPackContext pc = STBTTPackContext.malloc()) {
+            if (!stbtt_PackBegin(pc, pixels, w, h, 0, 1)) return false;
+            stbtt_PackSetOversampling(pc, 2, 1);
+            boolean ok = stbtt_PackFontRange(pc, ttf, 0, size, FIRST, chars.slice(0, GLYPHS - 1))
+                    && stbtt_PackFontRange(pc, ttf, 0, size, ELLIPSIS, chars.slice(GLYPHS - 1, 1));
+            stbtt_PackEnd(pc);
+            return ok;
+        }
+    }
+
+    private static int glyph(char c) {
+        if (c >= FIRST && c <= LAST) return c - FIRST;
+        if (c == ELLIPSIS) return GLYPHS - 1;
+        return '?' - FIRST;
+    }
+
+    /** Widest line of {@code text} in pixels. */
+    public float measure(CharSequence text) {
+        float width = 0, line = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') { width = Math.max(width, line); line = 0; continue; }
+            if (c == '\r') continue;
+            line += advances[glyph(c)];
+        }
+        return Math.max(width, line);
+    }
+
+    public int lineCount(CharSequence text) {
+        int lines = 1;
+        for (int i = 0; i < text.length(); i++) if (text.charAt(i) == '\n') lines++;
+        return lines;
+    }
+
+    /**
+     * Appends one quad per visible glyph to {@code out}, with the top of the first
+     * line at ({@code x}, {@code y}). Returns the number of quads written; {@code out}
+     * needs room for {@code text.length()} of them.
+     */
+    public int layout(CharSequence text, float x, float y, FloatBuffer out) {
+        float penX = x, baseline = Math.round(y + ascent);
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') { penX = x; baseline += Math.round(lineHeight); continue; }
+            if (c == '\r') continue;
+            int g = glyph(c), o = g * 8;
+            float x0 = penX + quads[o], y0 = baseline + quads[o + 1];
+            float x1 = penX + quads[o + 2], y1 = baseline + quads[o + 3];
+            penX += advances[g];
+            if (x0 == x1 || y0 == y1) continue;   // space
+            float s0 = quads[o + 4], t0 = quads[o + 5], s1 = quads[o + 6], t1 = quads[o + 7];
+            out.put(x0).put(y0).put(s0).put(t0);
+            out.put(x1).put(y0).put(s1).put(t0);
+            out.put(x1).put(y1).put(s1).put(t1);
+            out.put(x0).put(y1).put(s0).put(t1);
+            count++;
+        }
+        return count;
+    }
+
+    /** GL thread only; uploads the atlas on first use. */
+    public int getTextureId() {
+        if (textureId == 0 && !deleted) upload();
+        return textureId;
+    }
+
+    public float getAscent()     { return ascent; }
+    public float getLineHeight() { return lineHeight; }
+
+    @Override
+    public long getGpuBytes() { return (long) atlasWidth * atlasHeight; }
+
+    @Override
+    public void dispose() {
+        if (deleted) return;
+        if (textureId != 0) GLState.deleteTexture(textureId);
+        pixels = null;
+        deleted = true;
+    }
+}
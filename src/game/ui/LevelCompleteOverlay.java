@@ -1,26 +1,29 @@
 package game.ui;
 
 import game.core.Window;
-import game.util.FontLoader;
-
-import java.awt.Color;
-import java.awt.Font;
 
 public class LevelCompleteOverlay {
     private final OverlayRenderer renderer;
-    private final TextTexture tex;
+    private final TextLabel tex;
+    private final UiLayer layer = new UiLayer();   // static once drawn
 
     public LevelCompleteOverlay(Window window, String text) {
         this.renderer = new OverlayRenderer(window);
-        Font f = FontLoader.loadFont("/data/fonts/Rubik-BoldItalic.ttf", 32f);
-        this.tex = new TextTexture(text, f, 20, 10, Color.YELLOW);
+        this.tex = new TextLabel("/data/fonts/Rubik-BoldItalic.ttf", 32f, 20, 10, TextLabel.YELLOW, text);
     }
 
     public void render() {
         int x = (renderer.window.getWidth()  - tex.getWidth())  / 2;
         int y = (renderer.window.getHeight() - tex.getHeight()) / 2;
-        renderer.render(tex, x, y, true, 0.5f, 0f,0f,0f);
+        if (renderer.beginLayer(layer)) {
+            renderer.render(tex, x, y, true, 0.5f, 0f,0f,0f);
+            renderer.endLayer();
+        }
+        renderer.renderLayer(layer);
     }
 
-    public void cleanup() { tex.cleanup(); }
+    public void cleanup() {
+        tex.cleanup();
+        layer.cleanup();
+    }
 }
@@ -1,10 +1,7 @@
 package game.ui;
 
 import game.core.Window;
-import game.util.FontLoader;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.util.List;
 
 import static org.lwjgl.glfw.GLFW.*;
@@ -14,17 +11,17 @@ import org.lwjgl.BufferUtils;
 
 public class MenuOverlay {
     private final OverlayRenderer renderer;
-    private final Font font;
     private final List<String> items;
     private int selected = 0;
-    private TextTexture tex;
+    private final TextLabel tex;
+    private final UiLayer layer = new UiLayer();   // redrawn when the selection moves
     private String lastText = "";
 
     private boolean upPressed = false, downPressed = false, enterPressed = false;
 
     public MenuOverlay(Window window, List<String> items) {
         this.renderer = new OverlayRenderer(window);
-        this.font     = FontLoader.loadFont("/data/fonts/Rubik-Regular.ttf", 24f);
+        this.tex      = new TextLabel("/data/fonts/Rubik-Regular.ttf", 24f, 10, 5, TextLabel.WHITE);
         this.items    = items;
         rebuild();
     }
@@ -80,16 +77,21 @@ public class MenuOverlay {
         }
         String s = sb.toString();
         if (s.equals(lastText)) return;
-        if (tex != null) tex.cleanup();
-        tex = new TextTexture(s, font, 10, 5, Color.WHITE);
+        tex.setText(s);
+        layer.markDirty();
         lastText = s;
     }
 
     public void render() {
-        renderer.render(tex, 20, 20, true, 0.75f, 0f, 0f, 0f);
+        if (renderer.beginLayer(layer)) {
+            renderer.render(tex, 20, 20, true, 0.75f, 0f, 0f, 0f);
+            renderer.endLayer();
+        }
+        renderer.renderLayer(layer);
     }
 
     public void cleanup() {
-        if (tex != null) tex.cleanup();
+        tex.cleanup();
+        layer.cleanup();
     }
 }
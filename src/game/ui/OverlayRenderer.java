@@ -2,8 +2,6 @@ package game.ui;
 
 import game.core.Window;
 
-import static org.lwjgl.opengl.GL11.*;
-
 public class OverlayRenderer {
     final Window window;
 
@@ -11,56 +9,57 @@ public class OverlayRenderer {
         this.window = window;
     }
 
-    public void render(TextTexture tex,
+    // Appended to the frame's SpriteBatch, which draws in submission order after the world.
+    public void render(TextLabel label,
                        int x, int y,
                        boolean fullBg, float bgAlpha,
                        float bgR, float bgG, float bgB)
     {
-        int w = window.getWidth(), h = window.getHeight();
+        SpriteBatch batch = begin();
+        if (fullBg) batch.fill(0, 0, window.getWidth(), window.getHeight(), bgR, bgG, bgB, bgAlpha);
+        batch.drawText(label, x, y, 1f);
+    }
 
-        // Set up orthographic projection
-        glMatrixMode(GL_PROJECTION);
-        glPushMatrix(); glLoadIdentity();
-        glOrtho(0, w, h, 0, -1, 1);
-        glMatrixMode(GL_MODELVIEW);
-        glPushMatrix(); glLoadIdentity();
+    /** Draws {@code label} with its top-left at (x, y), scaled about that corner. */
+    public void render(TextLabel label, float x, float y, float scale) {
+        begin().drawText(label, x, y, scale);
+    }
 
-        glDisable(GL_DEPTH_TEST);
+    /** Draws a whole RGBA texture stretched over the given rectangle. */
+    public void renderImage(int texture, int x, int y, int w, int h) {
+        begin().draw(texture, x, y, w, h);
+    }
 
-        if (fullBg) {
-            glEnable(GL_BLEND);
-            glColor4f(bgR, bgG, bgB, bgAlpha);
-            glBegin(GL_QUADS);
-            glVertex2f(0,  0);
-            glVertex2f(w,  0);
-            glVertex2f(w,  h);
-            glVertex2f(0,  h);
-            glEnd();
-            glDisable(GL_BLEND);
+    /**
+     * Retained drawing: returns true if {@code layer} is dirty, in which case everything
+     * drawn until {@link #endLayer()} replaces its contents. Either way, follow with
+     * {@link #renderLayer} to show it.
+     */
+    public boolean beginLayer(UiLayer layer) {
+        // Contents are laid out against the window, so a resize redraws them.
+        int w = window.getFramebufferWidth(), h = window.getFramebufferHeight();
+        if (w != layer.screenWidth || h != layer.screenHeight) {
+            layer.screenWidth = w;
+            layer.screenHeight = h;
+            layer.dirty = true;
         }
+        if (!layer.dirty) return false;
+        begin().beginLayer(layer);
+        return true;
+    }
 
-        // Draw the text texture
-        glEnable(GL_TEXTURE_2D);
-        glBindTexture(GL_TEXTURE_2D, tex.getId());
-        glEnable(GL_BLEND);
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-
-        glColor4f(1,1,1,1);
-        glBegin(GL_QUADS);
-        glTexCoord2f(0,0); glVertex2f(x,          y);
-        glTexCoord2f(1,0); glVertex2f(x+tex.getWidth(), y);
-        glTexCoord2f(1,1); glVertex2f(x+tex.getWidth(), y+tex.getHeight());
-        glTexCoord2f(0,1); glVertex2f(x,          y+tex.getHeight());
-        glEnd();
+    public void endLayer() {
+        SpriteBatch.get().endLayer();
+    }
 
-        glDisable(GL_TEXTURE_2D);
-        glDisable(GL_BLEND);
-        glEnable(GL_DEPTH_TEST);
+    /** One quad showing the layer's cached contents, over just the area they cover. */
+    public void renderLayer(UiLayer layer) {
+        begin().composite(layer);
+    }
 
-        // Restore matrices
-        glMatrixMode(GL_PROJECTION);
-        glPopMatrix();
-        glMatrixMode(GL_MODELVIEW);
-        glPopMatrix();
+    private SpriteBatch begin() {
+        SpriteBatch batch = SpriteBatch.get();
+        batch.begin(window);
+        return batch;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,343 @@
+package game.ui;
+
+import game.core.Window;
+import game.graphics.GLState;
+import game.graphics.RenderQueue;
+import game.graphics.ShaderProgram;
+import game.graphics.ShaderRegistry;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Core-profile 2D quads for every overlay. Quads are appended during the frame
+ * into one CPU buffer; the first append queues a single UI item, which uploads
+ * the lot into one VBO and issues one draw per run of quads sharing a texture.
+ * Untextured fills sample a 1x1 white texture so they join the same runs.
+ * Coordinates are pixels, origin top-left. GL thread only.
+ * <p>
+ * Quads appended between {@link #beginLayer} and {@link #endLayer} are drawn into
+ * that {@link UiLayer} instead of the screen, before anything appended after them;
+ * {@link #composite} then puts the cached layer on screen. A layer's texture covers
+ * only the bounds of what was drawn into it, so small overlays composite small.
+ * Layers don't nest.
+ */
+public final class SpriteBatch {
+    private static final int VERTEX_FLOATS = 8;               // x y s t r g b a
+    private static final int QUAD_FLOATS = VERTEX_FLOATS * 4;
+
+    private static final SpriteBatch INSTANCE = new SpriteBatch();
+
+    private FloatBuffer vertices = BufferUtils.createFloatBuffer(256 * QUAD_FLOATS);
+    private int quadCount;
+
+    // Runs of consecutive quads sharing a texture, target and blend, in append order.
+    private int[] runTexture = new int[16], runEnd = new int[16];
+    private UiLayer[] runLayer = new UiLayer[16];
+    private boolean[] runPremultiplied = new boolean[16];
+    private int runs;
+
+    // Where quads appended now go, and whether they are premultiplied layer composites.
+    private UiLayer target;
+    private boolean premultiplied;
+    private int layerFirstRun, layerFirstQuad;
+
+    private int viewportWidth, viewportHeight, screenWidth, screenHeight;
+    private boolean queued;
+    private static final float[] TRANSPARENT = { 0, 0, 0, 0 };
+
+    // GL objects, made on first draw.
+    private ShaderProgram program;
+    private int viewportLoc, originLoc, vao, vbo, ebo, whiteTexture;
+    private int vboQuads, eboQuads;
+    private int drawCalls;
+
+    private SpriteBatch() {}
+
+    public static SpriteBatch get() { return INSTANCE; }
+
+    /** Starts this frame's batch for the window, or continues it; call before appending. */
+    public void begin(Window window) {
+        viewportWidth = window.getWidth();
+        viewportHeight = window.getHeight();
+        screenWidth = window.getFramebufferWidth();
+        screenHeight = window.getFramebufferHeight();
+        if (queued) return;
+        if (program == null) init();
+        RenderQueue.get().submitUi(program.getId(), GL_TEXTURE_2D, 0, RenderQueue.STATE_BLEND, DRAW);
+        queued = true;
+    }
+
+    public void fill(float x, float y, float w, float h, float r, float g, float b, float a) {
+        quad(whiteTexture, x, y, x + w, y + h, 0, 0, 1, 1, r, g, b, a);
+    }
+
+    public void draw(int texture, float x, float y, float w, float h) {
+        quad(texture, x, y, x + w, y + h, 0, 0, 1, 1, 1, 1, 1, 1);
+    }
+
+    /** Following quads draw into {@code layer}, which is cleared first; its dirty flag is taken. */
+    public void beginLayer(UiLayer layer) {
+        target = layer;
+        layer.dirty = false;
+        layerFirstRun = runs;
+        layerFirstQuad = quadCount;
+        newRun(0);   // a run even if nothing is drawn, so the clear still happens
+    }
+
+    /** Sizes the layer to the pixels its quads touch; with none, it is left empty and its runs dropped. */
+    public void endLayer() {
+        UiLayer layer = target;
+        target = null;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int v = layerFirstQuad * QUAD_FLOATS, end = quadCount * QUAD_FLOATS; v < end; v += VERTEX_FLOATS) {
+            float x = vertices.get(v), y = vertices.get(v + 1);
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+        // Snap outwards to whole framebuffer pixels, clipped to the screen.
+        float sx = (float) screenWidth / viewportWidth, sy = (float) screenHeight / viewportHeight;
+        int px0 = Math.max(0, (int) Math.floor(minX * sx)), px1 = Math.min(screenWidth, (int) Math.ceil(maxX * sx));
+        int py0 = Math.max(0, (int) Math.floor(minY * sy)), py1 = Math.min(screenHeight, (int) Math.ceil(maxY * sy));
+        if (px1 <= px0 || py1 <= py0) {
+            Arrays.fill(runLayer, layerFirstRun, runs, null);
+            runs = layerFirstRun;
+            quadCount = layerFirstQuad;
+            vertices.position(quadCount * QUAD_FLOATS);
+            layer.width = layer.height = 0;
+            return;
+        }
+        layer.reserve(px1 - px0, py1 - py0);
+        layer.width = px1 - px0;
+        layer.height = py1 - py0;
+        layer.x = px0 / sx;
+        layer.y = py0 / sy;
+        layer.w = layer.width / sx;
+        layer.h = layer.height / sy;
+    }
+
+    /** Puts a layer's cached contents back where they were drawn. */
+    public void composite(UiLayer layer) {
+        if (target != null) throw new IllegalStateException("Layers don't nest");
+        if (layer.isEmpty()) return;
+        premultiplied = true;
+        // Rendered top-down into a bottom-up texture, so flip V; the rest of the texture is unused.
+        quad(layer.texture, layer.x, layer.y, layer.x + layer.w, layer.y + layer.h,
+                0, (float) layer.height / layer.textureHeight, (float) layer.width / layer.textureWidth, 0,
+                1, 1, 1, 1);
+        premultiplied = false;
+    }
+
+    /** Copies a label's laid-out glyphs, offset to (x, y) and scaled about that corner. */
+    public void drawText(TextLabel label, float x, float y, float scale) {
+        FloatBuffer src = label.getVertices();
+        int n = label.getQuadCount();
+        if (n == 0) return;
+        startRun(label.getTextureId());
+        ensureCapacity(quadCount + n);
+        for (int v = 0, end = n * 4 * FontAtlas.VERTEX_FLOATS; v < end; v += FontAtlas.VERTEX_FLOATS) {
+            vertices.put(x + src.get(v) * scale).put(y + src.get(v + 1) * scale)
+                    .put(src.get(v + 2)).put(src.get(v + 3))
+                    .put(label.r).put(label.g).put(label.b).put(label.a);
+        }
+        quadCount += n;
+        runEnd[runs - 1] = quadCount;
+    }
+
+    private void quad(int texture, float x0, float y0, float x1, float y1,
+                      float s0, float t0, float s1, float t1, float r, float g, float b, float a) {
+        startRun(texture);
+        ensureCapacity(quadCount + 1);
+        vertices.put(x0).put(y0).put(s0).put(t0).put(r).put(g).put(b).put(a);
+        vertices.put(x1).put(y0).put(s1).put(t0).put(r).put(g).put(b).put(a);
+        vertices.put(x1).put(y1).put(s1).put(t1).put(r).put(g).put(b).put(a);
+        vertices.put(x0).put(y1).put(s0).put(t1).put(r).put(g).put(b).put(a);
+        quadCount++;
+        runEnd[runs - 1] = quadCount;
+    }
+
+    private void startRun(int texture) {
+        int last = runs - 1;
+        if (runs > 0 && runTexture[last] == texture && runLayer[last] == target
+                && runPremultiplied[last] == premultiplied) return;
+        newRun(texture);
+    }
+
+    private void newRun(int texture) {
+        if (runs == runTexture.length) {
+            runTexture = Arrays.copyOf(runTexture, runs * 2);
+            runEnd = Arrays.copyOf(runEnd, runs * 2);
+            runLayer = Arrays.copyOf(runLayer, runs * 2);
+            runPremultiplied = Arrays.copyOf(runPremultiplied, runs * 2);
+        }
+        runTexture[runs] = texture;
+        runEnd[runs] = quadCount;
+        runLayer[runs] = target;
+        runPremultiplied[runs] = premultiplied;
+        runs++;
+    }
+
+    private void ensureCapacity(int quads) {
+        if (quads * QUAD_FLOATS <= vertices.capacity()) return;
+        FloatBuffer bigger = BufferUtils.createFloatBuffer(Math.max(quads, vertices.capacity() / QUAD_FLOATS * 2) * QUAD_FLOATS);
+        vertices.flip();
+        bigger.put(vertices);
+        vertices = bigger;
+    }
+
+    // Program, buffers and the white texture; the first begin() is on the GL thread.
+    private void init() {
+        String vertexShaderSource = "#version 330 core\n" +
+                "layout(location = 0) in vec2 position;\n" +    // pixels, origin top-left
+                "layout(location = 1) in vec2 texCoord;\n" +
+                "layout(location = 2) in vec4 color;\n" +
+                "uniform vec2 viewport;\n" +                 // size and top-left of the target, in pixels
+                "uniform vec2 origin;\n" +
+                "out vec2 passTexCoord;\n" +
+                "out vec4 passColor;\n" +
+                "void main() {\n" +
+                "    passTexCoord = texCoord;\n" +
+                "    passColor = color;\n" +
+                "    vec2 p = position - origin;\n" +
+                "    gl_Position = vec4(p.x / viewport.x * 2.0 - 1.0, 1.0 - p.y / viewport.y * 2.0, 0.0, 1.0);\n" +
+                "}";
+        String fragmentShaderSource = "#version 330 core\n" +
+                "in vec2 passTexCoord;\n" +
+                "in vec4 passColor;\n" +
+                "out vec4 fragColor;\n" +
+                "uniform sampler2D image;\n" +
+                "void main() {\n" +
+                "    fragColor = texture(image, passTexCoord) * passColor;\n" +
+                "}";
+        try {
+            program = ShaderRegistry.acquire(vertexShaderSource, fragmentShaderSource);
+        } catch (Exception e) {
+            throw new RuntimeException("SpriteBatch init failed: " + e.getMessage(), e);
+        }
+        program.use();
+        glUniform1i(program.getUniformLocation("image"), 0);
+        viewportLoc = program.getUniformLocation("viewport");
+        originLoc = program.getUniformLocation("origin");
+        program.stop();
+
+        vao = glGenVertexArrays();
+        GLState.bindVertexArray(vao);
+        vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        int stride = VERTEX_FLOATS * Float.BYTES;
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, stride, 0);
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, stride, 2 * Float.BYTES);
+        glVertexAttribPointer(2, 4, GL_FLOAT, false, stride, 4 * Float.BYTES);
+        for (int a = 0; a <= 2; a++) glEnableVertexAttribArray(a);
+        ebo = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);   // recorded in the VAO
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        GLState.bindVertexArray(0);
+
+        whiteTexture = glGenTextures();
+        GLState.bindTexture(GL_TEXTURE_2D, whiteTexture);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, 1, 1, 0, GL_RGBA, GL_UNSIGNED_BYTE, new int[] { -1 });
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+    }
+
+    private final RenderQueue.Command DRAW = item -> drawQueued();
+
+    private void drawQueued() {
+        if (quadCount > 0) {
+            vertices.flip();
+            GLState.bindVertexArray(vao);
+            glBindBuffer(GL_ARRAY_BUFFER, vbo);
+            if (quadCount > vboQuads) {
+                vboQuads = Math.max(quadCount, vboQuads * 2);
+                glBufferData(GL_ARRAY_BUFFER, (long) vboQuads * QUAD_FLOATS * Float.BYTES, GL_STREAM_DRAW);
+            }
+            glBufferSubData(GL_ARRAY_BUFFER, 0, vertices);
+            glBindBuffer(GL_ARRAY_BUFFER, 0);
+            if (quadCount > eboQuads) growIndices(Math.max(quadCount, eboQuads * 2));
+
+            glUniform2f(viewportLoc, viewportWidth, viewportHeight);
+            glUniform2f(originLoc, 0, 0);
+        }
+        // Each target maps window coordinates onto itself through the viewport and origin uniforms.
+        UiLayer bound = null;
+        int start = 0;
+        drawCalls = 0;
+        for (int i = 0; i < runs; i++) {
+            if (runLayer[i] != bound) {
+                bound = runLayer[i];
+                bindTarget(bound);
+            }
+            int count = runEnd[i] - start;
+            if (count > 0) {
+                if (bound != null) {
+                    // Premultiply into the layer so it composites with ONE, ONE_MINUS_SRC_ALPHA.
+                    GLState.blendFuncSeparate(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA, GL_ONE, GL_ONE_MINUS_SRC_ALPHA);
+                } else {
+                    GLState.blendFunc(runPremultiplied[i] ? GL_ONE : GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+                }
+                GLState.bindTexture(GL_TEXTURE_2D, runTexture[i]);
+                glDrawElements(GL_TRIANGLES, count * 6, GL_UNSIGNED_INT, (long) start * 6 * Integer.BYTES);
+                drawCalls++;
+            }
+            start = runEnd[i];
+        }
+        if (bound != null) bindTarget(null);
+        GLState.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        Arrays.fill(runLayer, 0, runs, null);
+        vertices.clear();
+        quadCount = 0;
+        runs = 0;
+        queued = false;
+    }
+
+    private void bindTarget(UiLayer layer) {
+        if (layer != null) {
+            glBindFramebuffer(GL_FRAMEBUFFER, layer.framebuffer);
+            glViewport(0, 0, layer.width, layer.height);
+            glUniform2f(viewportLoc, layer.w, layer.h);
+            glUniform2f(originLoc, layer.x, layer.y);
+            glClearBufferfv(GL_COLOR, 0, TRANSPARENT);
+        } else {
+            glBindFramebuffer(GL_FRAMEBUFFER, 0);
+            glViewport(0, 0, screenWidth, screenHeight);
+            glUniform2f(viewportLoc, viewportWidth, viewportHeight);
+            glUniform2f(originLoc, 0, 0);
+        }
+    }
+
+    // Two triangles per quad over its four vertices; the VAO is bound, so this binds its EBO.
+    private void growIndices(int quads) {
+        IntBuffer indices = BufferUtils.createIntBuffer(quads * 6);
+        for (int q = 0, v = 0; q < quads; q++, v += 4) {
+            indices.put(v).put(v + 1).put(v + 2).put(v).put(v + 2).put(v + 3);
+        }
+        indices.flip();
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
+        eboQuads = quads;
+    }
+
+    /** Draw calls issued by the last frame's batch: one per texture run. */
+    public int getDrawCalls() { return drawCalls; }
+
+    public void cleanup() {
+        if (program == null) return;
+        ShaderRegistry.release(program);
+        glDeleteBuffers(vbo);
+        glDeleteBuffers(ebo);
+        GLState.deleteVertexArray(vao);
+        GLState.deleteTexture(whiteTexture);
+        program = null;
+        queued = false;
+        target = null;
+    }
+}
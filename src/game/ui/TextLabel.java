@@ -0,0 +1,72 @@
+package game.ui;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A string laid out against a shared {@link FontAtlas}. {@link #setText} rewrites
+ * the glyph quads in place, so changing text never touches a texture; the buffer
+ * only reallocates when a longer string than any before arrives. Drawn by copying
+ * the quads into the {@link SpriteBatch}. Width and height include the padding,
+ * like a baked text image would.
+ */
+public class TextLabel {
+    private static final int QUAD_FLOATS = FontAtlas.VERTEX_FLOATS * FontAtlas.QUAD_VERTICES;
+
+    // Text colours, 0xRRGGBBAA.
+    public static final int WHITE = 0xFFFFFFFF, YELLOW = 0xFFFF00FF;
+
+    private final String fontPath;
+    private final float fontSize;
+    private final FontAtlas atlas;
+    private final int padX, padY;
+    final float r, g, b, a;
+
+    private FloatBuffer vertices;
+    private int capacity, quadCount, width, height;
+
+    /** {@code rgba} is 0xRRGGBBAA, like {@code TextureArray}'s placeholders. */
+    public TextLabel(String fontPath, float fontSize, int padX, int padY, int rgba) {
+        this.fontPath = fontPath;
+        this.fontSize = fontSize;
+        this.atlas = FontAtlas.acquire(fontPath, fontSize);
+        this.padX = padX;
+        this.padY = padY;
+        this.r = (rgba >>> 24) / 255f;
+        this.g = ((rgba >>> 16) & 0xFF) / 255f;
+        this.b = ((rgba >>> 8) & 0xFF) / 255f;
+        this.a = (rgba & 0xFF) / 255f;
+    }
+
+    public TextLabel(String fontPath, float fontSize, int padX, int padY, int rgba, CharSequence text) {
+        this(fontPath, fontSize, padX, padY, rgba);
+        setText(text);
+    }
+
+    public void setText(CharSequence text) {
+        if (vertices == null || text.length() > capacity) {
+            capacity = Math.max(16, Integer.highestOneBit(Math.max(1, text.length())) << 1);
+            vertices = BufferUtils.createFloatBuffer(capacity * QUAD_FLOATS);
+        }
+        vertices.clear();
+        quadCount = atlas.layout(text, padX, padY, vertices);
+        vertices.flip();
+        width = (int) Math.ceil(atlas.measure(text)) + padX * 2;
+        height = Math.round(atlas.getLineHeight()) * atlas.lineCount(text) + padY * 2;
+    }
+
+    /** Unpadded width of {@code text} in this label's font, without laying it out. */
+    public float measure(CharSequence text) { return atlas.measure(text); }
+
+    // Quads as x, y, s, t per vertex, relative to the label's top-left; absolute reads only.
+    FloatBuffer getVertices()  { return vertices; }
+    int getQuadCount()         { return quadCount; }
+    public int getTextureId()  { return atlas.getTextureId(); }
+    public int getWidth()      { return width; }
+    public int getHeight()     { return height; }
+
+    public void cleanup() {
+        FontAtlas.release(fontPath, fontSize);
+    }
+}
@@ -1,28 +1,28 @@
 package game.ui;
 
 import game.core.Window;
-import game.util.FontLoader;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.util.ArrayList;
 import java.util.List;
 
 public class TimerOverlay {
+    private static final String FONT = "/data/fonts/RubikMonoOne.ttf";
+    private static final float FONT_SIZE = 20f;
+
     private final OverlayRenderer renderer;
-    private final Font font;
 
-    //Timer text
-    private TextTexture timeTex;
-    private String lastTimeStr = "";
+    //Timer text: one label whose vertices are rewritten as the time changes
+    private final TextLabel timeLabel;
+    private final StringBuilder timeText = new StringBuilder(16);
+    private long lastTenths = -1;   // displayed time in tenths of a second
     private double lastElapsedForDt = 0.0; // used to derive dt each update
 
     // simple pop-up messages
     private static final class Toast {
         final String text;
         float ttl;              // seconds remaining
-        final TextTexture tex;  // pre-baked text for the toast
-        Toast(String text, float ttl, TextTexture tex) {
+        final TextLabel tex;    // laid out once for the toast
+        Toast(String text, float ttl, TextLabel tex) {
             this.text = text; this.ttl = ttl; this.tex = tex;
         }
     }
@@ -30,25 +30,25 @@ public class TimerOverlay {
 
     public TimerOverlay(Window window) {
         this.renderer = new OverlayRenderer(window);
-        this.font     = FontLoader.loadFont("/data/fonts/RubikMonoOne.ttf", 20f);
+        this.timeLabel = new TextLabel(FONT, FONT_SIZE, 10, 5, TextLabel.WHITE);
     }
 
-    // Format mm:ss.t
-    public String formatTime(double elapsedTime) {
-        int minutes = (int)(elapsedTime / 60);
-        double seconds = elapsedTime - minutes * 60;
-        if (seconds >= 59.95) { seconds = 0; minutes++; }
-        return String.format("%d:%04.1f", minutes, seconds);
+    // Format m:ss.t into the reused builder; same text as "%d:%04.1f" without the garbage.
+    private StringBuilder formatTime(long tenths) {
+        long minutes = tenths / 600, rest = tenths % 600;
+        timeText.setLength(0);
+        timeText.append(minutes).append(':');
+        if (rest < 100) timeText.append('0');
+        return timeText.append(rest / 10).append('.').append(rest % 10);
     }
 
     // Call once per frame with total elapsed seconds
     public void update(double elapsed) {
-        // Update main timer texture when text changes
-        String s = formatTime(elapsed);
-        if (!s.equals(lastTimeStr)) {
-            if (timeTex != null) timeTex.cleanup();
-            timeTex = new TextTexture(s, font, 10, 5, Color.WHITE);
-            lastTimeStr = s;
+        // Re-lay the timer when the shown tenth changes; a vertex update, no texture work.
+        long tenths = Math.round(elapsed * 10.0);
+        if (tenths != lastTenths) {
+            timeLabel.setText(formatTime(tenths));
+            lastTenths = tenths;
         }
 
         // Derive dt from elapsed
@@ -71,16 +71,17 @@ public class TimerOverlay {
         if (text == null || text.isEmpty()) return;
         float ttl = Math.max(0.5f, seconds);
         // You can change color here if you want (e.g., green for objectives)
-        TextTexture popupTex = new TextTexture(text, font, 10, 5, Color.WHITE);
+        TextLabel popupTex = new TextLabel(FONT, FONT_SIZE, 10, 5, TextLabel.WHITE, text);
         toasts.add(new Toast(text, ttl, popupTex));
     }
 
+    // A few glyph quads each frame, straight to the screen; a layer would blend more pixels than they cover.
     public void render() {
         // Timer
-        if (timeTex != null) {
-            int x = renderer.window.getWidth() - timeTex.getWidth() - 10;
+        if (lastTenths >= 0) {
+            int x = renderer.window.getWidth() - timeLabel.getWidth() - 10;
             int y = 10;
-            renderer.render(timeTex, x, y, false, 0, 0, 0, 0);
+            renderer.render(timeLabel, x, y, false, 0, 0, 0, 0);
         }
 
         // Toasts
@@ -88,14 +89,14 @@ public class TimerOverlay {
         int y = 48;
         for (int i = 0; i < toasts.size(); i++) {
             Toast t = toasts.get(i);
-            TextTexture tex = t.tex;
+            TextLabel tex = t.tex;
             renderer.render(tex, startX, y, false, 0, 0, 0, 0);
             y += tex.getHeight() + 6; // vertical spacing
         }
     }
 
     public void cleanup() {
-        if (timeTex != null) timeTex.cleanup();
+        timeLabel.cleanup();
         for (Toast t : toasts) t.tex.cleanup();
         toasts.clear();
     }
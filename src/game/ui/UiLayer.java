@@ -0,0 +1,55 @@
+package game.ui;
+
+import game.graphics.GLState;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * An overlay cached in an offscreen texture. Its owner redraws into it only
+ * after {@link #markDirty()} (see {@link OverlayRenderer#beginLayer}); every
+ * other frame it costs one quad over the rectangle its contents cover, not the
+ * whole window. Contents are premultiplied.
+ */
+public final class UiLayer {
+    int framebuffer, texture;
+    int textureWidth, textureHeight;   // allocated pixels; grows, never shrinks
+    int width, height;                 // pixels in use, from the texture's bottom-left
+    float x, y, w, h;                  // where those pixels go, in window coordinates
+    int screenWidth, screenHeight;     // framebuffer size the contents were drawn for
+    boolean dirty = true;
+
+    public void markDirty() { dirty = true; }
+
+    boolean isEmpty() { return width == 0 || height == 0; }
+
+    // Makes room for a w x h pixel region; reallocating loses the contents, which are being redrawn anyway.
+    void reserve(int w, int h) {
+        if (texture != 0 && w <= textureWidth && h <= textureHeight) return;
+        if (texture == 0) {
+            texture = glGenTextures();
+            framebuffer = glGenFramebuffers();
+        }
+        textureWidth = Math.max(w, textureWidth);
+        textureHeight = Math.max(h, textureHeight);
+        GLState.bindTexture(GL_TEXTURE_2D, texture);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, textureWidth, textureHeight, 0, GL_RGBA, GL_UNSIGNED_BYTE, 0L);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        glBindFramebuffer(GL_FRAMEBUFFER, framebuffer);
+        glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, texture, 0);
+        int status = glCheckFramebufferStatus(GL_FRAMEBUFFER);
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        if (status != GL_FRAMEBUFFER_COMPLETE) {
+            throw new RuntimeException("UI layer framebuffer incomplete: 0x" + Integer.toHexString(status));
+        }
+    }
+
+    public void cleanup() {
+        if (texture == 0) return;
+        glDeleteFramebuffers(framebuffer);
+        GLState.deleteTexture(texture);
+        texture = framebuffer = 0;
+        textureWidth = textureHeight = width = height = 0;
+    }
+}
@@ -1,23 +1,31 @@
 package game.util;
 
-import java.awt.Font;
-import java.awt.FontFormatException;
+import org.lwjgl.BufferUtils;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class FontLoader {
-    public static Font loadFont(String path, float size) {
-        try {
-            InputStream is = FontLoader.class.getResourceAsStream(path);
+    public static final String DEFAULT_FONT = "/data/fonts/RubikMonoOne.ttf";
+
+    /**
+     * Raw TrueType bytes in a direct buffer, as stb_truetype wants them. Falls back
+     * to the default font if {@code path} is missing.
+     */
+    public static ByteBuffer loadBytes(String path) {
+        try (InputStream is = FontLoader.class.getResourceAsStream(path)) {
             if (is == null) {
                 throw new IOException("Font file not found: " + path);
             }
-            Font font = Font.createFont(Font.TRUETYPE_FONT, is);
-            return font.deriveFont(Font.PLAIN, size);
-        } catch (FontFormatException | IOException e) {
+            byte[] bytes = is.readAllBytes();
+            ByteBuffer buf = BufferUtils.createByteBuffer(bytes.length);
+            buf.put(bytes).flip();
+            return buf;
+        } catch (IOException e) {
+            if (DEFAULT_FONT.equals(path)) throw new RuntimeException(e);
             e.printStackTrace();
-            // Fallback to a default monospaced font if something goes wrong.
-            return new Font("Monospaced", Font.PLAIN, (int) size);
+            return loadBytes(DEFAULT_FONT);
         }
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,8 @@ import game.physics.CollisionHandler;
 public class Player {
     private float x, y, z;
     private float yaw;
+    // State at the start of the current simulation step; see WorldSnapshot.
+    private float prevX, prevZ, prevYaw;
 
     public Player() {
         this.x = 0.0f;
@@ -28,6 +30,17 @@ public class Player {
         }
     }
 
+    /** Call at the start of each simulation step. */
+    public void storePrevious() {
+        prevX = x;
+        prevZ = z;
+        prevYaw = yaw;
+    }
+
+    public float getPrevX()   { return prevX; }
+    public float getPrevZ()   { return prevZ; }
+    public float getPrevYaw() { return prevYaw; }
+
     public void rotate(float angle) {
         yaw += angle;
     }
@@ -40,12 +53,16 @@ public class Player {
     public float getY()   { return y; }
     public float getZ()   { return z; }
 
+    // Placement is a jump, not motion, so nothing is interpolated across it.
     public void setYaw(float yaw) {
         this.yaw = yaw;
+        this.prevYaw = yaw;
     }
 
     public void setPosition(float x, float z) {
         this.x = x;
         this.z = z;
+        this.prevX = x;
+        this.prevZ = z;
     }
 }
@@ -0,0 +1,33 @@
+package game.world;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free handover of {@link WorldSnapshot}s from one writer thread to one reader.
+ * The writer fills a back snapshot and swaps it into a shared middle slot; the reader
+ * swaps the middle slot for its front one when something newer has arrived. A third
+ * slot is what lets both sides swap without waiting: neither ever touches the
+ * snapshot the other one currently owns, and the reader always gets the newest.
+ */
+public final class SnapshotBuffer {
+    private static final int FRESH = 4;   // set on the middle index while the reader hasn't taken it
+
+    private final WorldSnapshot[] slots = { new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot() };
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;    // writer's
+    private int front = 2;   // reader's
+
+    /** Writer only: the snapshot to fill before {@link #publish()}. */
+    public WorldSnapshot back() { return slots[back]; }
+
+    /** Writer only: makes the filled back snapshot the newest one. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & 3;
+    }
+
+    /** Reader only: the newest published snapshot, left alone by the writer until the next call. */
+    public WorldSnapshot latest() {
+        if ((middle.get() & FRESH) != 0) front = middle.getAndSet(front) & 3;
+        return slots[front];
+    }
+}
@@ -0,0 +1,97 @@
+package game.world;
+
+import game.config.GameConfig;
+import game.world.enemy.Enemy;
+
+import java.util.List;
+
+/**
+ * What the GL thread draws a level from: player, enemies and doors as of the
+ * simulation's latest step, plus where each mover was one step earlier so frames
+ * can blend between the two. Filled by the simulation thread and handed over
+ * through {@link SnapshotBuffer}; once published it never changes while a
+ * reader holds it. Arrays are reused between fills, so readers should not keep
+ * a snapshot across {@link SnapshotBuffer#latest()} calls.
+ */
+public final class WorldSnapshot {
+    private static final int ENEMY_FLOATS = 6;   // prevX, prevZ, prevYaw, x, z, yaw
+
+    private float playerPrevX, playerPrevZ, playerPrevYaw;
+    private float playerX, playerY, playerZ, playerYaw;
+
+    private int enemyCount;
+    private String[] enemyTypes = new String[16];
+    private float[] enemies = new float[16 * ENEMY_FLOATS];
+
+    private boolean[] doorsOpen = new boolean[0];
+    private double levelSeconds;
+    private long stepNanos;   // System.nanoTime() when the newest step finished
+
+    /** Simulation thread only, on an unpublished snapshot. */
+    public void capture(Player player, List<Enemy> enemyList, boolean[] doors,
+                        double levelSeconds, long stepNanos) {
+        playerPrevX = player.getPrevX();
+        playerPrevZ = player.getPrevZ();
+        playerPrevYaw = player.getPrevYaw();
+        playerX = player.getX();
+        playerY = player.getY();
+        playerZ = player.getZ();
+        playerYaw = player.getYaw();
+
+        enemyCount = enemyList.size();
+        if (enemyCount > enemyTypes.length) {
+            enemyTypes = new String[enemyCount * 2];
+            enemies = new float[enemyCount * 2 * ENEMY_FLOATS];
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy e = enemyList.get(i);
+            int o = i * ENEMY_FLOATS;
+            enemyTypes[i] = e.getType();
+            enemies[o]     = e.getPrevX();
+            enemies[o + 1] = e.getPrevZ();
+            enemies[o + 2] = e.getPrevYaw();
+            enemies[o + 3] = e.getX();
+            enemies[o + 4] = e.getZ();
+            enemies[o + 5] = e.getYaw();
+        }
+
+        if (doorsOpen.length != doors.length) doorsOpen = new boolean[doors.length];
+        System.arraycopy(doors, 0, doorsOpen, 0, doors.length);
+        this.levelSeconds = levelSeconds;
+        this.stepNanos = stepNanos;
+    }
+
+    /** How far past the newest step {@code nowNanos} is, in steps, clamped to [0, 1]. */
+    public float alphaAt(long nowNanos) {
+        float a = (nowNanos - stepNanos) / (GameConfig.SIM_STEP_SECONDS * 1e9f);
+        return Math.max(0f, Math.min(1f, a));
+    }
+
+    // Between the previous and newest step; alpha 0 = previous, 1 = newest.
+    public float getPlayerX(float alpha)   { return lerp(playerPrevX, playerX, alpha); }
+    public float getPlayerY()              { return playerY; }
+    public float getPlayerZ(float alpha)   { return lerp(playerPrevZ, playerZ, alpha); }
+    public float getPlayerYaw(float alpha) { return lerp(playerPrevYaw, playerYaw, alpha); }
+
+    public int getEnemyCount()                 { return enemyCount; }
+    public String getEnemyType(int i)          { return enemyTypes[i]; }
+    public float getEnemyX(int i, float alpha) { return lerp(enemies[i * ENEMY_FLOATS], enemies[i * ENEMY_FLOATS + 3], alpha); }
+    public float getEnemyZ(int i, float alpha) { return lerp(enemies[i * ENEMY_FLOATS + 1], enemies[i * ENEMY_FLOATS + 4], alpha); }
+
+    // Enemy yaw is kept in [0, 360); turn the short way round, so 350 -> 10 passes through 0.
+    public float getEnemyYaw(int i, float alpha) {
+        float from = enemies[i * ENEMY_FLOATS + 2], to = enemies[i * ENEMY_FLOATS + 5];
+        float delta = ((to - from + 540f) % 360f) - 180f;
+        float yaw = (from + delta * alpha) % 360f;
+        return yaw < 0 ? yaw + 360f : yaw;
+    }
+
+    public int getDoorCount()           { return doorsOpen.length; }
+    public boolean isDoorOpen(int door) { return doorsOpen[door]; }
+
+    public double getLevelSeconds() { return levelSeconds; }
+
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
+    }
+}
@@ -10,6 +10,7 @@ public abstract class BaseEnemy {
     protected float x;   // world X (meters)
     protected float z;   // world Z (meters)
     protected float yaw; // facing, degrees [0..360)
+    private float prevX, prevZ, prevYaw;   // at the start of the current simulation step
 
     protected float speed = 1.5f;          // meters/sec (base move speed)
     protected float fovDeg = 90.0f;        // field of view (for LOS helpers / sensors)
@@ -35,12 +36,25 @@ public abstract class BaseEnemy {
     public void setPosition(float worldX, float worldZ) {
         this.x = worldX;
         this.z = worldZ;
+        this.prevX = worldX;
+        this.prevZ = worldZ;
     }
 
     public void setYaw(float degrees) {
         this.yaw = normalizeDeg(degrees);
+        this.prevYaw = this.yaw;
     }
 
+    public void storePrevious() {
+        prevX = x;
+        prevZ = z;
+        prevYaw = yaw;
+    }
+
+    public float getPrevX()   { return prevX; }
+    public float getPrevZ()   { return prevZ; }
+    public float getPrevYaw() { return prevYaw; }
+
     public void setSpeed(float metersPerSec) { this.speed = metersPerSec; }
     public void setFovDeg(float fovDeg) { this.fovDeg = fovDeg; }
     public void setViewDistTiles(float tiles) { this.viewDistTiles = tiles; }
@@ -15,6 +15,12 @@ public interface Enemy {
     void setPosition(float x, float z);
     void setYaw(float yawDegrees);
 
+    // Transform at the start of the current simulation step, for render interpolation.
+    void storePrevious();
+    float getPrevX();
+    float getPrevZ();
+    float getPrevYaw();
+
     void update(float dt, MapData map, Player player, EventBus events);
 
     boolean canSeePlayer(MapData map, Player player);
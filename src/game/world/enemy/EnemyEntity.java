@@ -23,9 +23,12 @@ public final class EnemyEntity extends BaseEnemy implements Enemy, AIAgent {
     private final WorldAdapter world;     // wraps MapData+Player+EventBus
     private final String spriteKey;       // used by EnemySpriteRenderer cache
 
-    private Vector2i moveIntentCell = null;
+    // Reused every tick; callers copy what they keep.
+    private final Vector2i cell = new Vector2i();
+    private final Vector2i moveIntentCell = new Vector2i();
+    private boolean hasMoveIntent;
     private float moveSpeedMul = 1f;
-    private Vector2i aimTarget = null;
+    private final Vector2i aimTarget = new Vector2i();
 
     public EnemyEntity(String spriteKey,
                        InputStream behaviorJson,
@@ -58,7 +61,7 @@ public final class EnemyEntity extends BaseEnemy implements Enemy, AIAgent {
         world.accumulateTime(dt);
         ai.tick(dt, this);
         // Apply movement intent
-        if (moveIntentCell != null) {
+        if (hasMoveIntent) {
             float cx = (moveIntentCell.x + 0.5f) * game.config.GameConfig.TILE_SIZE;
             float cz = (moveIntentCell.y + 0.5f) * game.config.GameConfig.TILE_SIZE;
             float dx = cx - x, dz = cz - z;
@@ -68,7 +71,7 @@ public final class EnemyEntity extends BaseEnemy implements Enemy, AIAgent {
                 move(nx * speed * moveSpeedMul * dt, nz * speed * moveSpeedMul * dt, map);
                 faceToward(cx, cz);
             } else {
-                moveIntentCell = null; // reached
+                hasMoveIntent = false; // reached
             }
         }
     }
@@ -80,13 +83,14 @@ public final class EnemyEntity extends BaseEnemy implements Enemy, AIAgent {
     @Override public org.joml.Vector2i getCell() {
         int tx = (int)(x / game.config.GameConfig.TILE_SIZE);
         int ty = (int)(z / game.config.GameConfig.TILE_SIZE);
-        return new Vector2i(tx, ty);
+        return cell.set(tx, ty);
     }
     @Override public void requestMoveTo(Vector2i nextCell, float speedMul) {
-        this.moveIntentCell = new Vector2i(nextCell);
+        this.moveIntentCell.set(nextCell);
+        this.hasMoveIntent = true;
         this.moveSpeedMul = speedMul;
     }
-    @Override public void aimAt(Vector2i cell) { this.aimTarget = new Vector2i(cell); }
+    @Override public void aimAt(Vector2i cell) { this.aimTarget.set(cell); }
     @Override public Random rng() { return rng; }
     @Override public WorldAPI world() { return world; }
 
@@ -18,13 +18,20 @@ import java.util.List;
 public class EnemyManager {
 
     private final List<Enemy> enemies = new ArrayList<>();
+    private final List<Enemy> enemiesView = Collections.unmodifiableList(enemies);
     private boolean playerDefeated = false;
+    // Posted every step an enemy sees the player, so one per cell is made up front.
+    private final GameEvent[] spottedEvents;
+    private final int width, height;
     private final EventBus events;
     private final Player player;
 
     public EnemyManager(MapData map, Player player, EventBus events) {
         this.events = events;
         this.player = player;
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.spottedEvents = GameEvent.perCell(GameEventType.ENEMY_SPOTTED_PLAYER, width, height);
         if (map.getEnemySpecs() != null) {
             for (JSONObject spec : map.getEnemySpecs()) {
                 Enemy e = buildEnemyFromSpec(spec, map, events);
@@ -33,21 +40,24 @@ public class EnemyManager {
         }
     }
 
-    public List<Enemy> getEnemies() { return Collections.unmodifiableList(enemies); }
+    public List<Enemy> getEnemies() { return enemiesView; }
 
     public boolean isPlayerDefeated() { return playerDefeated; }
 
     public void update(float dt, MapData map, Player player) {
         if (playerDefeated) return;
 
-        for (Enemy e : enemies) {
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            e.storePrevious();
             e.update(dt, map, player, events);
 
             // Vision events: now AI-backed via EnemyEntity.canSeePlayer(...)
             if (e.canSeePlayer(map, player)) {
                 final int tx = (int)(player.getX() / GameConfig.TILE_SIZE);
                 final int ty = (int)(player.getZ() / GameConfig.TILE_SIZE);
-                events.post(new GameEvent(GameEventType.ENEMY_SPOTTED_PLAYER, tx, ty));
+                boolean onMap = tx >= 0 && tx < width && ty >= 0 && ty < height;
+                events.post(onMap ? spottedEvents[ty * width + tx] : new GameEvent(GameEventType.ENEMY_SPOTTED_PLAYER, tx, ty));
             }
 
             // Capture / defeat check (unchanged)
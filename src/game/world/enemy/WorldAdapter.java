@@ -6,7 +6,6 @@ import game.map.MapData;
 import game.world.Player;
 import org.joml.Vector2i;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -18,6 +17,7 @@ public final class WorldAdapter implements WorldAPI {
     private float timeSeconds = 0f;
 
     private Vector2i lastNoiseCell = null;
+    private final Vector2i playerCell = new Vector2i();
 
     private List<Vector2i> patrol = List.of();
 
@@ -54,14 +54,13 @@ public final class WorldAdapter implements WorldAPI {
     }
 
     @Override
-    public List<Vector2i> neighbors4(Vector2i c) {
-        int x = c.x, y = c.y;
-        List<Vector2i> out = new ArrayList<>(4);
-        tryAdd(out, x + 1, y);
-        tryAdd(out, x - 1, y);
-        tryAdd(out, x, y + 1);
-        tryAdd(out, x, y - 1);
-        return out;
+    public int neighbors4(Vector2i c, Vector2i[] out) {
+        int x = c.x, y = c.y, n = 0;
+        n = tryAdd(out, n, x + 1, y);
+        n = tryAdd(out, n, x - 1, y);
+        n = tryAdd(out, n, x, y + 1);
+        n = tryAdd(out, n, x, y - 1);
+        return n;
     }
 
     @Override
@@ -77,7 +76,8 @@ public final class WorldAdapter implements WorldAPI {
 
     @Override
     public Vector2i playerCell() {
-        return worldToCell(player.getX(), player.getZ());
+        final float ts = GameConfig.TILE_SIZE;
+        return playerCell.set((int)(player.getX() / ts), (int)(player.getZ() / ts));
     }
 
     @Override
@@ -89,8 +89,10 @@ public final class WorldAdapter implements WorldAPI {
     public void setPatrol(List<Vector2i> patrol) { this.patrol = List.copyOf(patrol); }
     public List<Vector2i> getPatrol() { return patrol; }
 
-    private void tryAdd(List<Vector2i> out, int tx, int ty) {
-        if (inBounds(tx, ty)) out.add(new Vector2i(tx, ty));
+    private int tryAdd(Vector2i[] out, int n, int tx, int ty) {
+        if (!inBounds(tx, ty)) return n;
+        out[n].set(tx, ty);
+        return n + 1;
     }
 
     private boolean inBounds(int tx, int ty) {
@@ -98,9 +100,4 @@ public final class WorldAdapter implements WorldAPI {
         int h = map.getHeight();
         return tx >= 0 && ty >= 0 && tx < w && ty < h;
     }
-
-    private static Vector2i worldToCell(float worldX, float worldZ) {
-        final float ts = GameConfig.TILE_SIZE;
-        return new Vector2i((int)(worldX / ts), (int)(worldZ / ts));
-    }
 }
@@ -0,0 +1,117 @@
+package game.core;
+
+import com.sun.management.ThreadMXBean;
+import game.audio.AudioSystem;
+import game.config.GameConfig;
+import game.input.KeyboardInput;
+import game.logic.Condition;
+import game.logic.ConditionFactory;
+import game.logic.GameEvent;
+import game.logic.GameEventType;
+import game.logic.Registries;
+import game.logic.TimerService;
+import game.logic.cond.ReachCell;
+import game.map.LevelManager;
+import game.map.MapData;
+import game.map.MapLoader;
+import game.map.TileDefinitionLoader;
+import game.map.TileRegistry;
+import game.ui.TimerOverlay;
+import game.world.Player;
+import game.world.WorldSnapshot;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Steady-state steps of the first level must not allocate: the simulation's whole
+ * step (held movement keys through collision, tile events and objectives, enemy AI)
+ * and snapshot publish, plus what the GL thread does with them each frame (draining
+ * events and popups, the timer overlay, the audio listener). Headless; the overlay's
+ * font is baked on the CPU and only uploaded when drawn, so stb's natives are needed
+ * but no GL context (-Dorg.lwjgl.librarypath=libs/native/natives-linux).
+ *
+ * When C2 deoptimizes a method the JVM itself may allocate a few bytes on this
+ * thread, so a measured minute may be retried; garbage made by the steps shows up
+ * in every minute and still fails.
+ */
+class SteadyStateAllocationTest {
+    private static final int WARMUP_STEPS = 8 * 60 * 120;   // every behaviour has run and been compiled
+    private static final int MEASURED_STEPS = 60 * 120;
+    private static final int ATTEMPTS = 3;
+
+    private static boolean audio;
+
+    @BeforeAll
+    static void init() {
+        TileRegistry.initialize(TileDefinitionLoader.loadDefinitions());
+        Registries.CONDITIONS.put("reach", new ConditionFactory() {
+            @Override public String id() { return "reach"; }
+            @Override public Condition create(JSONObject cfg) { return new ReachCell(cfg.getInt("x"), cfg.getInt("y")); }
+        });
+        audio = AudioSystem.init();   // no device is fine: setListener is still called
+    }
+
+    @AfterAll
+    static void shutdown() {
+        if (audio) AudioSystem.shutdown();
+    }
+
+    @Test
+    void simulationStepsAllocateNothingAfterWarmUp() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counters unavailable");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        MapData map = MapLoader.loadMap(new LevelManager("/data/map/levels.json").getCurrentLevel().mapPath);
+        Player player = new Player();
+        float ts = GameConfig.TILE_SIZE;
+        player.setPosition(map.getPlayerSpawnX() * ts + ts / 2, map.getPlayerSpawnY() * ts + ts / 2);
+        player.setYaw(map.getCameraYaw());
+        TimerService timers = new TimerService();
+        timers.startRun();
+        Simulation simulation = new Simulation(map, player, timers);
+        TimerOverlay timer = new TimerOverlay(null);
+
+        // Walking in a circle that keeps crossing tiles, in sight of an enemy that never closes in.
+        simulation.setKeys(KeyboardInput.FORWARD | KeyboardInput.TURN_RIGHT);
+        for (int i = 0; i < WARMUP_STEPS; i++) step(simulation, timer);
+
+        long allocated = 0;
+        int tilesEntered = 0;
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            tilesEntered = 0;
+            for (int i = 0; i < MEASURED_STEPS; i++) tilesEntered += step(simulation, timer);
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            if (allocated == 0) break;
+        }
+
+        assertEquals(Simulation.Outcome.NONE, simulation.getOutcome(), "the level ended, so later steps did nothing");
+        assertTrue(tilesEntered > 0, "the player never left its tile");
+        assertEquals(0, allocated, "bytes allocated over " + MEASURED_STEPS + " steady-state steps");
+        timer.cleanup();
+    }
+
+    // One simulation step, then the GL thread's share of a frame; returns the tiles entered.
+    private static int step(Simulation simulation, TimerOverlay timer) {
+        simulation.stepOnce();
+        WorldSnapshot world = simulation.latest();
+        int tilesEntered = 0;
+        for (GameEvent e; (e = simulation.pollEvent()) != null; ) {
+            if (e.type == GameEventType.ENTER_TILE) tilesEntered++;
+        }
+        for (String msg; (msg = simulation.pollPopup()) != null; ) timer.pushPopup(msg, 2.5f);
+        timer.update(world.getLevelSeconds());
+        float alpha = world.alphaAt(System.nanoTime());
+        AudioSystem.setListener(world.getPlayerX(alpha), world.getPlayerY(), world.getPlayerZ(alpha), world.getPlayerYaw(alpha));
+        return tilesEntered;
+    }
+}
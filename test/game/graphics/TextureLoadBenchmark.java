@@ -0,0 +1,141 @@
+package game.graphics;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.stb.STBImage.*;
+
+/**
+ * Decode-only comparison of the old ImageIO path (BufferedImage, getRGB, byte
+ * packing into a GC'd direct buffer) against stb_image into native memory.
+ * No GL context is needed; the upload is identical for both.
+ *
+ * With the textures on the classpath it also times {@link TextureCache} misses
+ * (decode, mips, write) against hits (memory-mapped), clearing ./texcache first.
+ *
+ * Usage: java game.graphics.TextureLoadBenchmark [textureDir] [rounds]
+ * (defaults: src/data/assets/textures, 50).
+ */
+public final class TextureLoadBenchmark {
+    public static void main(String[] args) throws Exception {
+        File dir = new File(args.length > 0 ? args[0] : "src/data/assets/textures");
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        List<byte[]> files = new ArrayList<>();
+        File[] pngs = dir.listFiles((d, n) -> n.endsWith(".png") || n.endsWith(".jpg"));
+        if (pngs == null || pngs.length == 0) {
+            System.err.println("No images in " + dir.getAbsolutePath());
+            return;
+        }
+        long bytes = 0;
+        for (File f : pngs) {
+            byte[] data = Files.readAllBytes(f.toPath());
+            files.add(data);
+            bytes += data.length;
+        }
+        System.out.println(files.size() + " images, " + bytes + " bytes, " + rounds + " rounds");
+
+        // Cold: first decode includes class loading (java.desktop for ImageIO, STB natives).
+        long t0 = System.nanoTime();
+        decodeAllImageIO(files);
+        long coldImageIO = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        decodeAllStb(files);
+        long coldStb = System.nanoTime() - t0;
+
+        for (int i = 0; i < 5; i++) { decodeAllImageIO(files); decodeAllStb(files); }
+
+        long imageIO = 0, stb = 0;
+        for (int i = 0; i < rounds; i++) {
+            t0 = System.nanoTime();
+            decodeAllImageIO(files);
+            imageIO += System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            decodeAllStb(files);
+            stb += System.nanoTime() - t0;
+        }
+
+        System.out.printf("cold   ImageIO %8.2f ms   stb %8.2f ms%n", coldImageIO / 1e6, coldStb / 1e6);
+        System.out.printf("warm   ImageIO %8.3f ms   stb %8.3f ms   per set of %d images%n",
+                imageIO / 1e6 / rounds, stb / 1e6 / rounds, files.size());
+
+        // TextureCache: first pass decodes + builds mips + writes, later passes map the entries.
+        // Needs the textures on the classpath under /data/assets/textures.
+        List<String> resources = new ArrayList<>();
+        for (File f : pngs) resources.add("/data/assets/textures/" + f.getName());
+        if (TextureLoadBenchmark.class.getResource(resources.get(0)) != null) {
+            deleteCache();
+            t0 = System.nanoTime();
+            loadAllCached(resources);
+            long cacheMiss = System.nanoTime() - t0;
+            long cacheHit = 0;
+            for (int i = 0; i < rounds; i++) {
+                t0 = System.nanoTime();
+                loadAllCached(resources);
+                cacheHit += System.nanoTime() - t0;
+            }
+            System.out.printf("cache  miss    %8.3f ms   hit %8.3f ms   per set (with mips)%n",
+                    cacheMiss / 1e6, cacheHit / 1e6 / rounds);
+        }
+    }
+
+    private static void loadAllCached(List<String> resources) throws Exception {
+        for (String r : resources) TextureCache.load(r, 0, 0).free();
+    }
+
+    private static void deleteCache() throws Exception {
+        File dir = new File("texcache");
+        File[] entries = dir.listFiles();
+        if (entries != null) for (File f : entries) Files.delete(f.toPath());
+    }
+
+    // The loader as it was before: AWT decode, int[] copy, per-byte puts into a heap-tracked buffer.
+    private static long decodeAllImageIO(List<byte[]> files) throws Exception {
+        long sum = 0;
+        for (byte[] data : files) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+            int width = image.getWidth(), height = image.getHeight();
+            int[] pixels = new int[width * height];
+            image.getRGB(0, 0, width, height, pixels, 0, width);
+            ByteBuffer buffer = BufferUtils.createByteBuffer(width * height * 4);
+            for (int pixel : pixels) {
+                buffer.put((byte) ((pixel >> 16) & 0xFF));
+                buffer.put((byte) ((pixel >> 8) & 0xFF));
+                buffer.put((byte) (pixel & 0xFF));
+                buffer.put((byte) ((pixel >> 24) & 0xFF));
+            }
+            buffer.flip();
+            sum += buffer.get(0);
+        }
+        return sum;
+    }
+
+    private static long decodeAllStb(List<byte[]> files) {
+        long sum = 0;
+        for (byte[] data : files) {
+            ByteBuffer file = MemoryUtil.memAlloc(data.length);
+            file.put(data).flip();
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                IntBuffer w = stack.mallocInt(1), h = stack.mallocInt(1), comp = stack.mallocInt(1);
+                ByteBuffer pixels = stbi_load_from_memory(file, w, h, comp, 4);
+                if (pixels == null) throw new IllegalStateException(stbi_failure_reason());
+                sum += pixels.get(0);
+                stbi_image_free(pixels);
+            } finally {
+                MemoryUtil.memFree(file);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,64 @@
+package game.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotBufferTest {
+    private static final int PUBLISHES = 2_000_000;
+
+    @Test
+    void latestIsTheNewestPublished() {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        Player player = new Player();
+
+        publish(buffer, player, 1);
+        WorldSnapshot first = buffer.latest();
+        assertEquals(1, first.getLevelSeconds());
+        assertSame(first, buffer.latest(), "nothing new: the reader keeps its snapshot");
+
+        publish(buffer, player, 2);
+        publish(buffer, player, 3);
+        WorldSnapshot newest = buffer.latest();
+        assertEquals(3, newest.getLevelSeconds(), "skips straight to the newest");
+        assertEquals(3, newest.getPlayerX(1f));
+    }
+
+    // One writer publishing as fast as it can against one reader polling as fast as it can.
+    // Each snapshot carries its sequence number three times; a torn read would mix them.
+    @Test
+    void concurrentReadsAreNeverTornOrOutOfOrder() throws InterruptedException {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        Player player = new Player();
+        Thread writer = new Thread(() -> {
+            for (int k = 1; k <= PUBLISHES; k++) publish(buffer, player, k);
+        }, "snapshot-writer");
+        writer.start();
+
+        double last = 0;
+        long reads = 0, torn = 0, backwards = 0;
+        while (last < PUBLISHES) {
+            WorldSnapshot s = buffer.latest();
+            double seq = s.getLevelSeconds();
+            if (s.getPlayerX(1f) != (float) seq || s.getPlayerZ(1f) != -(float) seq) torn++;
+            if (seq < last) backwards++;
+            last = seq;
+            reads++;
+        }
+        writer.join();
+
+        assertEquals(0, torn, "torn snapshots in " + reads + " reads");
+        assertEquals(0, backwards, "snapshots older than one already read");
+        assertTrue(reads > 1, "the reader never overlapped the writer");
+    }
+
+    private static void publish(SnapshotBuffer buffer, Player player, int seq) {
+        player.setPosition(seq, -seq);
+        buffer.back().capture(player, List.of(), new boolean[0], seq, 0);
+        buffer.publish();
+    }
+}